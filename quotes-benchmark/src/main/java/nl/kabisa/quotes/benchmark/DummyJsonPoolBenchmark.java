@@ -0,0 +1,209 @@
+package nl.kabisa.quotes.benchmark;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.head;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import nl.kabisa.quotes.model.Quote;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.Http11SslContextSpec;
+import reactor.netty.http.Http2SslContextSpec;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.tcp.SslProvider.GenericSslContextSpec;
+
+/**
+ * Latency of calls to Dummy JSON over TLS, against a local WireMock stand-in with a self-signed certificate, on the
+ * default Reactor Netty connection pool and on a pool tuned like {@code DummyJsonWebClientConfig} with the defaults of
+ * {@code quotes.dummy-json.connection-pool}.
+ * <p>
+ * {@code firstRequest} measures the first request on a new pool, with and without opening connections up front like
+ * {@code DummyJsonClient} does at startup. {@code burst} measures {@value #BURST} concurrent requests once connections
+ * exist, over HTTP/1.1 and HTTP/2. Requests the pool rejects, because its queue of pending acquires is full, are counted
+ * in the auxiliary counter {@code failedRequests}, summed over all iterations.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+public class DummyJsonPoolBenchmark {
+
+    private static final int BURST = 100;
+
+    private WireMockServer wireMock;
+
+    @Setup
+    public void startStandIn() {
+        wireMock = new WireMockServer(wireMockConfig().dynamicHttpsPort().httpDisabled(true).containerThreads(BURST + 20));
+        wireMock.start();
+        wireMock.stubFor(get("/quotes/random").willReturn(okJson("""
+            {
+              "id": 1,
+              "quote": "Simplicity is prerequisite for reliability.",
+              "author": "Edsger W. Dijkstra"
+            }
+            """)));
+        wireMock.stubFor(head(urlEqualTo("/quotes")).willReturn(ok()));
+    }
+
+    @TearDown
+    public void stopStandIn() {
+        wireMock.stop();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 20)
+    public Quote firstRequest(NewPool pool) {
+        return pool.client.randomQuote();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3, time = 5)
+    @Measurement(iterations = 5, time = 5)
+    public long burst(WarmPool pool, Failures failures) {
+        long succeeded = Flux.range(0, BURST)
+            .flatMap(i -> pool.client.webClient.get().uri("/random").retrieve().bodyToMono(Quote.class)
+                .onErrorResume(ex -> Mono.empty()), BURST)
+            .count()
+            .block();
+        failures.failedRequests += BURST - succeeded;
+        return succeeded;
+    }
+
+    /**
+     * Number of requests that failed.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Failures {
+
+        public long failedRequests;
+    }
+
+    /**
+     * A new pool for every request, optionally with connections opened up front.
+     */
+    @State(Scope.Thread)
+    public static class NewPool {
+
+        @Param({"default", "tuned"})
+        public String pool;
+
+        @Param({"0", "4"})
+        public int warmupConnections;
+
+        private Client client;
+
+        @Setup(Level.Invocation)
+        public void createPool(DummyJsonPoolBenchmark benchmark) {
+            client = new Client(benchmark.wireMock.httpsPort(), pool, false);
+            client.warmUp(warmupConnections);
+        }
+
+        @TearDown(Level.Invocation)
+        public void disposePool() {
+            client.dispose();
+        }
+    }
+
+    /**
+     * A pool that is reused for all requests.
+     */
+    @State(Scope.Thread)
+    public static class WarmPool {
+
+        @Param({"default", "tuned"})
+        public String pool;
+
+        @Param({"false", "true"})
+        public boolean http2;
+
+        private Client client;
+
+        @Setup
+        public void createPool(DummyJsonPoolBenchmark benchmark) {
+            client = new Client(benchmark.wireMock.httpsPort(), pool, http2);
+        }
+
+        @TearDown
+        public void disposePool() {
+            client.dispose();
+        }
+    }
+
+    private static final class Client {
+
+        private final ConnectionProvider connectionProvider;
+        private final WebClient webClient;
+
+        private Client(int port, String pool, boolean http2) {
+            connectionProvider = "tuned".equals(pool)
+                ? ConnectionProvider.builder("dummy-json")
+                    .maxConnections(200)
+                    .pendingAcquireMaxCount(400)
+                    .pendingAcquireTimeout(Duration.ofSeconds(2))
+                    .maxIdleTime(Duration.ofSeconds(30))
+                    .maxLifeTime(Duration.ofMinutes(5))
+                    .evictInBackground(Duration.ofSeconds(30))
+                    .build()
+                : ConnectionProvider.builder("default").build();
+            // Typed as a generic spec, as the overload of sslContext taking a protocol spec is deprecated
+            GenericSslContextSpec<?> sslContext = http2
+                ? Http2SslContextSpec.forClient().configure(builder -> builder.trustManager(InsecureTrustManagerFactory.INSTANCE))
+                : Http11SslContextSpec.forClient().configure(builder -> builder.trustManager(InsecureTrustManagerFactory.INSTANCE));
+            var httpClient = HttpClient.create(connectionProvider).secure(spec -> spec.sslContext(sslContext));
+            if (http2) {
+                httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+            }
+            webClient = WebClient.builder()
+                .baseUrl("https://localhost:" + port + "/quotes")
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        }
+
+        private Quote randomQuote() {
+            return webClient.get().uri("/random").retrieve().bodyToMono(Quote.class).block();
+        }
+
+        private void warmUp(int connections) {
+            if (connections <= 0) {
+                return;
+            }
+            Flux.range(0, connections)
+                .flatMap(i -> webClient.head().exchangeToMono(response -> response.releaseBody().thenReturn(1)), connections)
+                .blockLast();
+        }
+
+        private void dispose() {
+            connectionProvider.dispose();
+        }
+    }
+}
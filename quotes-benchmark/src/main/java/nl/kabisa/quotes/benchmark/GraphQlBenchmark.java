@@ -0,0 +1,121 @@
+package nl.kabisa.quotes.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import nl.kabisa.quotes.QuotesApplication;
+import nl.kabisa.quotes.model.Quote;
+import nl.kabisa.quotes.repository.QuotesRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.graphql.ExecutionGraphQlResponse;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.support.DefaultExecutionGraphQlRequest;
+
+/**
+ * Throughput of the {@code ranking} and {@code random} GraphQL queries with and without the cache of parsed and validated
+ * documents. A document cache size of 0 parses and validates every request. Queries are executed through the GraphQL
+ * engine of the application, without HTTP, so the parsing and validation cost is not hidden behind transport overhead.
+ * Random quotes come from a file source, so Dummy JSON is not called.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class GraphQlBenchmark {
+
+    private static final String RANKING = "{ ranking { quote { id quote author } votes } }";
+    private static final String RANDOM = "{ random { id quote author } }";
+    private static final String HOME_SCREEN = """
+        query HomeScreen {
+          random { ...QuoteFields }
+          ranking { ...RankedQuoteFields }
+          topAuthors(first: 5) { author votes }
+          favourites: quotes(ids: [1, 2, 3]) { ...QuoteFields }
+          knuth: quotesByAuthor(author: "Author 3", first: 3) { ...RankedQuoteFields }
+        }
+
+        fragment QuoteFields on Quote {
+          id
+          quote
+          author
+        }
+
+        fragment RankedQuoteFields on RankedQuote {
+          quote { ...QuoteFields }
+          votes
+        }
+        """;
+
+    @Param({"1000", "0"})
+    public int documentCacheSize;
+
+    private ConfigurableApplicationContext context;
+    private ExecutionGraphQlService graphQlService;
+
+    @Setup
+    public void startApplication() {
+        context = new SpringApplicationBuilder(QuotesApplication.class)
+            .properties(
+                "spring.main.web-application-type=none",
+                "logging.level.root=warn",
+                "quotes.graphql.document-cache.maximum-size=" + documentCacheSize,
+                "quotes.sources.file.location=classpath:corpus.json",
+                "quotes.dummy-json.url=http://localhost:9/quotes",
+                "quotes.dummy-json.warmup.connections=0")
+            .run();
+        graphQlService = context.getBean(ExecutionGraphQlService.class);
+
+        var repository = context.getBean(QuotesRepository.class);
+        for (long id = 1; id <= 100; id++) {
+            repository.save(new Quote(id, "Quote " + id, "Author " + id % 10));
+            for (int vote = 0; vote < id % 7; vote++) {
+                repository.upvote(id);
+            }
+        }
+        execute(RANKING);
+        execute(RANDOM);
+        execute(HOME_SCREEN);
+    }
+
+    @TearDown
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public ExecutionGraphQlResponse ranking() {
+        return execute(RANKING);
+    }
+
+    @Benchmark
+    public ExecutionGraphQlResponse random() {
+        return execute(RANDOM);
+    }
+
+    @Benchmark
+    public ExecutionGraphQlResponse homeScreen() {
+        return execute(HOME_SCREEN);
+    }
+
+    private ExecutionGraphQlResponse execute(String document) {
+        var response = graphQlService.execute(new DefaultExecutionGraphQlRequest(document, null, null, null, "benchmark", null))
+            .block();
+        if (response == null || !response.getErrors().isEmpty()) {
+            throw new IllegalStateException("Query " + document + " failed: " + (response == null ? null : response.getErrors()));
+        }
+        return response;
+    }
+}
@@ -0,0 +1,104 @@
+package nl.kabisa.quotes.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import nl.kabisa.quotes.model.Quote;
+import nl.kabisa.quotes.model.RankedQuote;
+import nl.kabisa.quotes.repository.QuoteSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latency of searching the {@link QuoteSearchIndex} with one million synthetic quotes, for the top 10 results.
+ * <p>
+ * Quote texts are 8 to 16 words drawn from a Zipf distribution over a vocabulary of 50,000 words, the most frequent being
+ * English stop words: "the" appears in about two thirds of the quotes, "w100" in about one percent. The quotes are spread
+ * over 100,000 authors named "Author n", so the author filter "author" matches every quote. Nine out of ten quotes have no
+ * votes. The quotes are added in batches of 1,000, like an import, and the estimated size of the index is printed when the
+ * benchmark starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class QuoteSearchIndexBenchmark {
+
+    private static final int QUOTES = 1_000_000;
+    private static final int AUTHORS = 100_000;
+    private static final int VOCABULARY = 50_000;
+    private static final int FIRST = 10;
+    private static final String[] STOP_WORDS = {"the", "of", "and", "to", "a", "in", "is", "that", "it", "you"};
+
+    private QuoteSearchIndex index;
+
+    @Setup
+    public void createIndex() {
+        var random = new SplittableRandom(42);
+        var words = new String[VOCABULARY];
+        var cumulative = new double[VOCABULARY];
+        double total = 0;
+        for (int rank = 0; rank < VOCABULARY; rank++) {
+            words[rank] = rank < STOP_WORDS.length ? STOP_WORDS[rank] : "w" + rank;
+            total += 1.0 / (rank + 1);
+            cumulative[rank] = total;
+        }
+
+        index = new QuoteSearchIndex();
+        var batch = new ArrayList<RankedQuote>(1000);
+        for (int id = 0; id < QUOTES; id++) {
+            var text = new StringBuilder();
+            int length = random.nextInt(8, 17);
+            for (int i = 0; i < length; i++) {
+                int rank = Arrays.binarySearch(cumulative, random.nextDouble(total));
+                text.append(i == 0 ? "" : " ").append(words[rank < 0 ? -rank - 1 : rank]);
+            }
+            int votes = random.nextInt(10) == 0 ? random.nextInt(1, 1000) : 0;
+            batch.add(new RankedQuote(new Quote((long) id, text.toString(), "Author " + random.nextInt(AUTHORS)), votes));
+            if (batch.size() == 1000) {
+                index.addAll(batch);
+                batch.clear();
+            }
+        }
+
+        var registry = new SimpleMeterRegistry();
+        index.bindTo(registry);
+        System.out.printf("Search index of %.0f quotes and %.0f terms uses %.0f bytes%n",
+            registry.get("quotes.search.index.documents").gauge().value(),
+            registry.get("quotes.search.index.terms").gauge().value(),
+            registry.get("quotes.search.index.size").gauge().value());
+    }
+
+    @Benchmark
+    public List<RankedQuote> frequentTerm() {
+        return index.search("the", null, FIRST);
+    }
+
+    @Benchmark
+    public List<RankedQuote> midFrequencyTerm() {
+        return index.search("w100", null, FIRST);
+    }
+
+    @Benchmark
+    public List<RankedQuote> phrase() {
+        return index.search("\"of the\"", null, FIRST);
+    }
+
+    @Benchmark
+    public List<RankedQuote> author() {
+        return index.search(null, "author", FIRST);
+    }
+}
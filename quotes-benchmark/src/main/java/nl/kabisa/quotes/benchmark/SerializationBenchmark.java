@@ -0,0 +1,126 @@
+package nl.kabisa.quotes.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPOutputStream;
+import nl.kabisa.quotes.controller.QuotesProtobufHttpMessageConverter;
+import nl.kabisa.quotes.model.Quote;
+import nl.kabisa.quotes.model.RankedQuote;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Serialization cost and payload size of a random quote and of the ranking in every format the REST endpoints negotiate,
+ * written through the same message converters as the application. The payload sizes are printed when the benchmark
+ * starts, both as written and after gzip compression, which the server applies to responses over its minimum response
+ * size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SerializationBenchmark {
+
+    private static final Type RANKING_TYPE = new ParameterizedTypeReference<List<RankedQuote>>() {
+    }.getType();
+
+    @Param({"json", "cbor", "smile", "protobuf"})
+    public String format;
+
+    private GenericHttpMessageConverter<Object> converter;
+    private MediaType mediaType;
+    private Quote quote;
+    private List<RankedQuote> ranking;
+
+    @Setup
+    public void createPayloads() throws IOException {
+        converter = switch (format) {
+            case "json" -> new MappingJackson2HttpMessageConverter();
+            case "cbor" -> new MappingJackson2CborHttpMessageConverter();
+            case "smile" -> new MappingJackson2SmileHttpMessageConverter();
+            case "protobuf" -> new QuotesProtobufHttpMessageConverter();
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+        mediaType = converter.getSupportedMediaTypes().getFirst();
+        quote = new Quote(1L, "Simplicity is prerequisite for reliability.", "Edsger W. Dijkstra");
+        ranking = LongStream.rangeClosed(1, 10)
+            .mapToObj(id -> new RankedQuote(new Quote(id, "Quote number " + id + " of the ranking, about as long as a real one.",
+                "Author " + id), (int) (100 - id)))
+            .toList();
+
+        var output = new Output();
+        System.out.printf("%s: random %d bytes (%d gzipped), ranking %d bytes (%d gzipped)%n", format,
+            output.write(converter, quote, Quote.class, mediaType), gzipSize(output.body.toByteArray()),
+            output.write(converter, ranking, RANKING_TYPE, mediaType), gzipSize(output.body.toByteArray()));
+    }
+
+    @Benchmark
+    public int random(Output output) throws IOException {
+        return output.write(converter, quote, Quote.class, mediaType);
+    }
+
+    @Benchmark
+    public int ranking(Output output) throws IOException {
+        return output.write(converter, ranking, RANKING_TYPE, mediaType);
+    }
+
+    private static int gzipSize(byte[] bytes) throws IOException {
+        var compressed = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(bytes);
+        }
+        return compressed.size();
+    }
+
+    /**
+     * Reusable response body.
+     */
+    @State(Scope.Thread)
+    public static class Output implements HttpOutputMessage {
+
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private final HttpHeaders headers = new HttpHeaders();
+
+        int write(GenericHttpMessageConverter<Object> converter, Object payload, Type type, MediaType mediaType)
+            throws IOException {
+            body.reset();
+            headers.clear();
+            converter.write(payload, type, mediaType, this);
+            return body.size();
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package nl.kabisa.quotes.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import nl.kabisa.quotes.service.VoteDeduplicator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Throughput and memory of recording votes in the {@link VoteDeduplicator}, compared to an exact set of (client, quote)
+ * pairs. Every vote is new, as in normal traffic. Both start empty every iteration, like a new deduplication window, and
+ * use the default configuration of one million votes per window at a false-positive rate of 0.1%.
+ * <p>
+ * The Bloom filters are allocated up front; their size is printed when the benchmark starts. The exact set grows with
+ * every vote. Run with {@code -prof gc} to see the bytes allocated per vote ({@code gc.alloc.rate.norm}): for the exact set
+ * they stay reachable until the window ends, for the Bloom filters what little is allocated, such as the boxed quote ID,
+ * is garbage right away.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class VoteDeduplicationBenchmark {
+
+    private static final int CLIENTS = 10_000;
+    private static final long EXPECTED_VOTES = 1_000_000;
+
+    @Param({"bloom", "exact"})
+    public String implementation;
+
+    private final String[] clientIds = new String[CLIENTS];
+    private final AtomicLong nextQuoteId = new AtomicLong();
+    private VoteDeduplicator deduplicator;
+    private Set<Vote> votes;
+
+    @Setup
+    public void createClients() {
+        // Clients are identified by the SHA-256 digest of their API key, see ClientIdResolver
+        var random = ThreadLocalRandom.current();
+        for (int i = 0; i < CLIENTS; i++) {
+            var digest = new byte[32];
+            random.nextBytes(digest);
+            clientIds[i] = "key:" + HexFormat.of().formatHex(digest);
+        }
+        if ("bloom".equals(implementation)) {
+            var registry = new SimpleMeterRegistry();
+            deduplicator = createDeduplicator(registry);
+            System.out.printf("Vote deduplication filters use %.0f bytes%n",
+                registry.get("quotes.votes.deduplication.size").gauge().value());
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void startWindow() {
+        deduplicator = createDeduplicator(new SimpleMeterRegistry());
+        votes = ConcurrentHashMap.newKeySet();
+    }
+
+    @Benchmark
+    public boolean vote() {
+        var clientId = clientIds[ThreadLocalRandom.current().nextInt(CLIENTS)];
+        long quoteId = nextQuoteId.incrementAndGet();
+        if ("bloom".equals(implementation)) {
+            return deduplicator.tryRecord(clientId, quoteId);
+        }
+        return votes.add(new Vote(clientId, quoteId));
+    }
+
+    private static VoteDeduplicator createDeduplicator(SimpleMeterRegistry registry) {
+        return new VoteDeduplicator(true, Duration.ofDays(1), EXPECTED_VOTES, 0.001, DataSize.ofMegabytes(8), registry);
+    }
+
+    private record Vote(String clientId, Long quoteId) {
+
+    }
+}
@@ -1,9 +1,15 @@
 package nl.kabisa.quotes.client;
 
+import java.time.Duration;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import nl.kabisa.quotes.model.Quote;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -11,15 +17,33 @@ import reactor.core.publisher.Mono;
  */
 @Component
 @RequiredArgsConstructor
-public class DummyJsonClient {
+@Slf4j
+public class DummyJsonClient implements QuoteSource {
 
     private final WebClient dummyJsonWebClient;
 
+    @Value("${quotes.dummy-json.warmup.connections}")
+    private int warmupConnections;
+
+    @Value("${quotes.dummy-json.warmup.timeout}")
+    private Duration warmupTimeout;
+
+    @Override
+    public String getName() {
+        return "dummy-json";
+    }
+
+    @Override
+    public int getNamespace() {
+        return 0;
+    }
+
     /**
      * Fetches a random quote from the Dummy JSON API.
      *
      * @return a Mono emitting the fetched Quote
      */
+    @Override
     public Mono<Quote> getRandomQuote() {
         return dummyJsonWebClient.get()
             .uri("/random")
@@ -27,4 +51,25 @@ public class DummyJsonClient {
             .bodyToMono(Quote.class);
     }
 
+    /**
+     * Opens connections to the Dummy JSON API before the application accepts traffic, so the first requests do not pay
+     * for the TCP and TLS handshakes. Sends concurrent HEAD requests, one per connection to open, ignoring their outcome.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void warmUpConnections() {
+        if (warmupConnections <= 0) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        var warmed = Flux.range(0, warmupConnections)
+            .flatMap(i -> dummyJsonWebClient.head()
+                .exchangeToMono(response -> response.releaseBody().thenReturn(1))
+                .onErrorResume(ex -> Mono.empty()), warmupConnections)
+            .count()
+            .timeout(warmupTimeout, Mono.just(0L))
+            .block();
+        log.info("Warmed up {} of {} connections to Dummy JSON in {} ms", warmed, warmupConnections,
+            Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
 }
@@ -0,0 +1,69 @@
+package nl.kabisa.quotes.client;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.extern.slf4j.Slf4j;
+import nl.kabisa.quotes.model.Quote;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Source of quotes read from a JSON array of quotes, on the classpath ({@code classpath:}) or the file system
+ * ({@code file:}). Only active when {@code quotes.sources.file.location} is set.
+ */
+@Component
+@ConditionalOnProperty("quotes.sources.file.location")
+@Slf4j
+public class FileQuoteSource implements QuoteSource {
+
+    private final int namespace;
+    private final List<Quote> quotes;
+
+    public FileQuoteSource(@Value("${quotes.sources.file.location}") Resource location,
+        @Value("${quotes.sources.file.namespace}") int namespace,
+        ObjectMapper objectMapper) throws IOException {
+        this.namespace = namespace;
+        List<Quote> read;
+        try (var inputStream = location.getInputStream()) {
+            read = objectMapper.readValue(inputStream, new TypeReference<>() {
+            });
+        }
+        // Quotes without an ID or author cannot be stored, so skip them like an import does
+        this.quotes = read.stream()
+            .filter(quote -> quote != null && quote.id() != null && quote.author() != null)
+            .toList();
+        if (quotes.size() < read.size()) {
+            log.warn("Skipped {} quotes without an ID or author in {}", read.size() - quotes.size(), location);
+        }
+        log.info("Loaded {} quotes from {}", quotes.size(), location);
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public int getNamespace() {
+        return namespace;
+    }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
+
+    @Override
+    public Mono<Quote> getRandomQuote() {
+        if (quotes.isEmpty()) {
+            return Mono.empty();
+        }
+        return Mono.just(quotes.get(ThreadLocalRandom.current().nextInt(quotes.size())));
+    }
+}
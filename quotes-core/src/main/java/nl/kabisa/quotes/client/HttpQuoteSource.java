@@ -0,0 +1,66 @@
+package nl.kabisa.quotes.client;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import nl.kabisa.quotes.model.Quote;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Source of quotes fetched from an HTTP endpoint that returns a random quote as JSON, configured under
+ * {@code quotes.sources.http}. The ID, text and author are read from the response with the JSON Pointers of the
+ * configured fields, so providers with a different response shape need no code.
+ */
+public class HttpQuoteSource implements QuoteSource {
+
+    private final HttpQuoteSourcesProperties.Source properties;
+    private final WebClient webClient;
+    private final JsonPointer idField;
+    private final JsonPointer quoteField;
+    private final JsonPointer authorField;
+
+    public HttpQuoteSource(HttpQuoteSourcesProperties.Source properties, WebClient webClient) {
+        if (properties.name() == null || properties.url() == null) {
+            throw new IllegalStateException("HTTP quote source " + properties.name() + " must have a name and a URL");
+        }
+        this.properties = properties;
+        this.webClient = webClient;
+        this.idField = JsonPointer.compile(properties.fields().id());
+        this.quoteField = JsonPointer.compile(properties.fields().quote());
+        this.authorField = JsonPointer.compile(properties.fields().author());
+    }
+
+    @Override
+    public String getName() {
+        return properties.name();
+    }
+
+    @Override
+    public int getNamespace() {
+        return properties.namespace();
+    }
+
+    /**
+     * Fetches a random quote from the endpoint. Fails if the response has no integral ID, text or author.
+     *
+     * @return a Mono emitting the fetched Quote
+     */
+    @Override
+    public Mono<Quote> getRandomQuote() {
+        return webClient.get()
+            .uri(properties.url())
+            .retrieve()
+            .bodyToMono(JsonNode.class)
+            .map(this::toQuote);
+    }
+
+    private Quote toQuote(JsonNode response) {
+        var id = response.at(idField);
+        var quote = response.at(quoteField);
+        var author = response.at(authorField);
+        if (!id.canConvertToExactIntegral() || !quote.isTextual() || !author.isTextual()) {
+            throw new IllegalArgumentException("Response of quote source " + getName() + " has no ID, quote or author");
+        }
+        return new Quote(id.asLong(), quote.asText(), author.asText());
+    }
+}
@@ -0,0 +1,37 @@
+package nl.kabisa.quotes.client;
+
+import java.net.URI;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Generic HTTP quote sources, configured as a list under {@code quotes.sources.http}, see {@link HttpQuoteSource}.
+ *
+ * @param http configured HTTP sources, none by default
+ */
+@ConfigurationProperties("quotes.sources")
+public record HttpQuoteSourcesProperties(@DefaultValue List<Source> http) {
+
+    /**
+     * An HTTP endpoint returning a random quote as JSON.
+     *
+     * @param name      name of the source, used in logs and metrics
+     * @param url       URL of the endpoint, called with a GET request for every random quote
+     * @param namespace namespace of the IDs of the quotes of this source
+     * @param fields    where the ID, text and author are found in the response
+     */
+    public record Source(String name, URI url, int namespace, @DefaultValue Fields fields) {
+    }
+
+    /**
+     * JSON Pointers (RFC 6901) to the fields of the quote in the response, for example {@code /data/0/text}.
+     *
+     * @param id     pointer to the numeric ID, {@code /id} by default
+     * @param quote  pointer to the text, {@code /quote} by default
+     * @param author pointer to the author, {@code /author} by default
+     */
+    public record Fields(@DefaultValue("/id") String id, @DefaultValue("/quote") String quote,
+        @DefaultValue("/author") String author) {
+    }
+}
@@ -0,0 +1,45 @@
+package nl.kabisa.quotes.client;
+
+import nl.kabisa.quotes.model.Quote;
+import reactor.core.publisher.Mono;
+
+/**
+ * Source of quotes. Every Spring bean implementing this interface, and every {@link HttpQuoteSource} configured under
+ * {@code quotes.sources.http}, is queried for random quotes by {@link QuoteSources}.
+ * <p>
+ * Each source has its own namespace, which is stored in the high bits of the IDs of its quotes, so quotes of different
+ * sources with the same ID do not collide in the repository.
+ */
+public interface QuoteSource {
+
+    /**
+     * Gets the name of the source, used in logs.
+     *
+     * @return name of the source
+     */
+    String getName();
+
+    /**
+     * Gets the namespace of the IDs of the quotes of this source. Namespace 0 keeps the IDs as they are.
+     *
+     * @return namespace between 0 and {@value QuoteSources#MAXIMUM_NAMESPACE}
+     */
+    int getNamespace();
+
+    /**
+     * Tells whether the source answers from memory, without a remote call. Apart from a share of the requests, remote
+     * sources are only queried when no local source answered within the hedge delay, see {@link QuoteSources}.
+     *
+     * @return true if the source is local, false by default
+     */
+    default boolean isLocal() {
+        return false;
+    }
+
+    /**
+     * Fetches a random quote, with the ID as known by the source.
+     *
+     * @return a Mono emitting the fetched Quote
+     */
+    Mono<Quote> getRandomQuote();
+}
@@ -0,0 +1,138 @@
+package nl.kabisa.quotes.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import nl.kabisa.quotes.model.Quote;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * All configured {@link QuoteSource}s, queried together for random quotes: the Spring beans implementing it and the HTTP
+ * sources configured under {@code quotes.sources.http}.
+ * <p>
+ * A random quote is requested from every source in parallel. The first quote received wins and the other requests are
+ * cancelled, so a single slow or failing source neither adds latency nor makes the service unavailable. When there are
+ * local sources, remote sources are hedged: they are only queried when no local source answered within the hedge delay,
+ * so a local answer does not cost a remote call that is cancelled right away. As that would keep remote sources from ever
+ * being called, every request in a {@code quotes.sources.remote-share} of the requests queries the remote sources first,
+ * and the local sources only if none of them returns a quote within the budget. Quote IDs are namespaced by putting the
+ * namespace of the source above the lowest {@value #NAMESPACE_SHIFT} bits of the ID. With at most
+ * {@value #MAXIMUM_NAMESPACE} namespaces the IDs stay below 2<sup>53</sup>, so JavaScript clients can still represent
+ * them exactly.
+ * <p>
+ * The outcome of the requests to each source is counted in {@code quotes.sources.requests}, tagged with the {@code source}
+ * and an {@code outcome} of {@code completed}, {@code failed} or {@code cancelled}.
+ */
+@Component
+@EnableConfigurationProperties(HttpQuoteSourcesProperties.class)
+public class QuoteSources {
+
+    static final int NAMESPACE_SHIFT = 48;
+    static final int MAXIMUM_NAMESPACE = 31;
+
+    private final List<MeteredSource> localSources = new ArrayList<>();
+    private final List<MeteredSource> remoteSources = new ArrayList<>();
+    private final Duration budget;
+    private final Duration hedgeDelay;
+    private final long remoteInterval;
+    private final AtomicLong requests = new AtomicLong();
+
+    public QuoteSources(List<QuoteSource> sources, HttpQuoteSourcesProperties httpSources,
+        WebClient.Builder webClientBuilder, @Value("${quotes.sources.budget}") Duration budget,
+        @Value("${quotes.sources.hedge-delay}") Duration hedgeDelay,
+        @Value("${quotes.sources.remote-share}") double remoteShare, MeterRegistry registry) {
+        var allSources = new ArrayList<>(sources);
+        if (!httpSources.http().isEmpty()) {
+            var webClient = webClientBuilder.build();
+            httpSources.http().forEach(source -> allSources.add(new HttpQuoteSource(source, webClient)));
+        }
+
+        var namespaces = new HashSet<Integer>();
+        for (QuoteSource source : allSources) {
+            if (source.getNamespace() < 0 || source.getNamespace() > MAXIMUM_NAMESPACE) {
+                throw new IllegalStateException("Namespace of quote source " + source.getName() + " must be between 0 and "
+                    + MAXIMUM_NAMESPACE + ", but is " + source.getNamespace());
+            }
+            if (!namespaces.add(source.getNamespace())) {
+                throw new IllegalStateException("Namespace " + source.getNamespace() + " of quote source " + source.getName()
+                    + " is already used by another source");
+            }
+            (source.isLocal() ? localSources : remoteSources).add(new MeteredSource(source, registry));
+        }
+        if (remoteShare < 0 || remoteShare > 1) {
+            throw new IllegalStateException("Remote share of quote sources must be between 0 and 1, but is " + remoteShare);
+        }
+        this.budget = budget;
+        this.hedgeDelay = hedgeDelay;
+        this.remoteInterval = remoteShare == 0 ? 0 : Math.round(1 / remoteShare);
+    }
+
+    /**
+     * Fetches a random quote from whichever source answers first within the budget, with a namespaced ID. Fails if no
+     * source returns a quote in time.
+     *
+     * @return a Mono emitting the fetched Quote
+     */
+    public Mono<Quote> getRandomQuote() {
+        if (localSources.isEmpty() || remoteSources.isEmpty()) {
+            return firstQuote(localSources.isEmpty() ? remoteSources : localSources).timeout(budget);
+        }
+        if (remoteInterval > 0 && requests.getAndIncrement() % remoteInterval == 0) {
+            return firstQuote(remoteSources).timeout(budget)
+                .onErrorResume(ex -> firstQuote(localSources));
+        }
+        return Mono.firstWithValue(firstQuote(localSources), Mono.delay(hedgeDelay).then(firstQuote(remoteSources)))
+            .timeout(budget);
+    }
+
+    private static Mono<Quote> firstQuote(List<MeteredSource> sources) {
+        return Mono.firstWithValue(sources.stream()
+            .map(MeteredSource::getRandomQuote)
+            .toList());
+    }
+
+    private static Quote namespaced(QuoteSource source, Quote quote) {
+        if (quote.id() == null || quote.id() < 0 || quote.id() >= 1L << NAMESPACE_SHIFT) {
+            throw new IllegalArgumentException("Quote ID " + quote.id() + " of source " + source.getName() + " is out of range");
+        }
+        if (source.getNamespace() == 0) {
+            return quote;
+        }
+        return new Quote((long) source.getNamespace() << NAMESPACE_SHIFT | quote.id(), quote.quote(), quote.author());
+    }
+
+    /**
+     * A source with the counters of the outcomes of its requests.
+     */
+    private record MeteredSource(QuoteSource source, Counter completed, Counter failed, Counter cancelled) {
+
+        MeteredSource(QuoteSource source, MeterRegistry registry) {
+            this(source, counter(source, "completed", registry), counter(source, "failed", registry),
+                counter(source, "cancelled", registry));
+        }
+
+        Mono<Quote> getRandomQuote() {
+            return Mono.defer(source::getRandomQuote)
+                .map(quote -> namespaced(source, quote))
+                .doFinally(signal -> (signal == SignalType.CANCEL ? cancelled
+                    : signal == SignalType.ON_ERROR ? failed : completed).increment());
+        }
+
+        private static Counter counter(QuoteSource source, String outcome, MeterRegistry registry) {
+            return Counter.builder("quotes.sources.requests")
+                .description("Number of random quotes requested from a quote source, by outcome")
+                .tag("source", source.getName())
+                .tag("outcome", outcome)
+                .register(registry);
+        }
+    }
+}
@@ -1,12 +1,23 @@
 package nl.kabisa.quotes.configuration;
 
+import io.netty.channel.ChannelOption;
+import java.time.Duration;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 /**
  * Configuration class for setting up the WebClient to interact with the Dummy JSON API.
+ * <p>
+ * The WebClient gets its own connection pool, sized to the maximum number of concurrent upstream calls. Idle connections
+ * are closed before the server or a load balancer drops them, and connections are recycled after a maximum lifetime so
+ * DNS changes are picked up. Over HTTPS, HTTP/2 is negotiated when the server supports it. Pool metrics are published as
+ * {@code reactor.netty.connection.provider.*} with the pool name {@code dummy-json}.
  */
 @Configuration
 public class DummyJsonWebClientConfig {
@@ -14,10 +25,54 @@ public class DummyJsonWebClientConfig {
     @Value("${quotes.dummy-json.url}")
     private String baseUrl;
 
+    @Value("${quotes.dummy-json.http2}")
+    private boolean http2;
+
+    @Value("${quotes.dummy-json.connect-timeout}")
+    private Duration connectTimeout;
+
+    @Value("${quotes.dummy-json.connection-pool.max-connections}")
+    private int maxConnections;
+
+    @Value("${quotes.dummy-json.connection-pool.pending-acquire-max-count}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${quotes.dummy-json.connection-pool.pending-acquire-timeout}")
+    private Duration pendingAcquireTimeout;
+
+    @Value("${quotes.dummy-json.connection-pool.max-idle-time}")
+    private Duration maxIdleTime;
+
+    @Value("${quotes.dummy-json.connection-pool.max-life-time}")
+    private Duration maxLifeTime;
+
+    @Value("${quotes.dummy-json.connection-pool.eviction-interval}")
+    private Duration evictionInterval;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider dummyJsonConnectionProvider() {
+        return ConnectionProvider.builder("dummy-json")
+            .maxConnections(maxConnections)
+            .pendingAcquireMaxCount(pendingAcquireMaxCount)
+            .pendingAcquireTimeout(pendingAcquireTimeout)
+            .maxIdleTime(maxIdleTime)
+            .maxLifeTime(maxLifeTime)
+            .evictInBackground(evictionInterval)
+            .metrics(true)
+            .build();
+    }
+
     @Bean
-    public WebClient dummyJsonWebClient() {
-        return WebClient.builder()
+    public WebClient dummyJsonWebClient(WebClient.Builder webClientBuilder, ConnectionProvider dummyJsonConnectionProvider) {
+        var protocols = http2 && baseUrl.startsWith("https:")
+            ? new HttpProtocol[] {HttpProtocol.H2, HttpProtocol.HTTP11}
+            : new HttpProtocol[] {HttpProtocol.HTTP11};
+        var httpClient = HttpClient.create(dummyJsonConnectionProvider)
+            .protocol(protocols)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis());
+        return webClientBuilder
             .baseUrl(baseUrl)
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
             .build();
     }
 }
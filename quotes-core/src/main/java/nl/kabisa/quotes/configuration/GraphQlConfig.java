@@ -0,0 +1,59 @@
+package nl.kabisa.quotes.configuration;
+
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import java.util.Collection;
+import java.util.Map;
+import nl.kabisa.quotes.controller.GraphQlDocumentCache;
+import nl.kabisa.quotes.model.Quote;
+import nl.kabisa.quotes.service.QuotesService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Configuration class for the GraphQL engine.
+ */
+@Configuration
+public class GraphQlConfig {
+
+    /**
+     * Registers a batch loader for quotes by ID, so all quote lookups in a single GraphQL document are resolved with one
+     * repository call.
+     *
+     * @param registry batch loader registry of the GraphQL engine
+     * @param service  quotes service
+     */
+    public GraphQlConfig(BatchLoaderRegistry registry, QuotesService service) {
+        registry.forTypePair(Long.class, Quote.class)
+            .registerMappedBatchLoader((ids, env) -> Mono.just(service.getQuotes(ids)));
+    }
+
+    @Bean
+    public GraphQlSourceBuilderCustomizer documentCacheCustomizer(GraphQlDocumentCache documentCache) {
+        return builder -> builder.configureGraphQl(graphQl -> graphQl.preparsedDocumentProvider(documentCache));
+    }
+
+    /**
+     * Rejects documents whose total cost exceeds the configured maximum. Every selected field costs 1, unless a different
+     * cost is configured for it as {@code Type.field}. A field looking up a list of {@code ids} costs that once per ID.
+     *
+     * @param maximumCost maximum cost of a single document
+     * @param fieldCosts  costs per field
+     * @return instrumentation enforcing the maximum cost
+     */
+    @Bean
+    public MaxQueryComplexityInstrumentation queryCostInstrumentation(
+        @Value("${quotes.graphql.query-cost.maximum}") int maximumCost,
+        @Value("#{${quotes.graphql.query-cost.fields}}") Map<String, Integer> fieldCosts) {
+        return new MaxQueryComplexityInstrumentation(maximumCost, (env, childCost) -> {
+            int cost = fieldCosts.getOrDefault(env.getParentType().getName() + "." + env.getField().getName(), 1);
+            if (env.getArguments().get("ids") instanceof Collection<?> ids) {
+                cost *= ids.size();
+            }
+            return cost + childCost;
+        });
+    }
+}
@@ -0,0 +1,33 @@
+package nl.kabisa.quotes.configuration;
+
+import nl.kabisa.quotes.model.Quote;
+import nl.kabisa.quotes.model.RankedAuthor;
+import nl.kabisa.quotes.model.RankedQuote;
+import nl.kabisa.quotes.model.RankingChanges;
+import nl.kabisa.quotes.model.VoteCount;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Configuration class for the hints needed to run the application as a GraalVM native image.
+ * <p>
+ * The models are (de)serialized by Jackson and their properties are resolved by the GraphQL engine through reflection.
+ */
+@Configuration
+@RegisterReflectionForBinding({Quote.class, RankedQuote.class, RankedAuthor.class, RankingChanges.class, VoteCount.class})
+@ImportRuntimeHints(NativeHintsConfig.ResourcesHints.class)
+public class NativeHintsConfig {
+
+    static class ResourcesHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.resources()
+                .registerPattern("graphql/*.graphqls")
+                .registerPattern("proto/*.proto");
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package nl.kabisa.quotes.configuration;
+
+import java.util.List;
+import nl.kabisa.quotes.controller.QuotesProtobufHttpMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuration class for the REST endpoints.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    /**
+     * Adds Protobuf after the default converters, so JSON stays the format for clients that accept any type.
+     *
+     * @param converters configured message converters
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new QuotesProtobufHttpMessageConverter());
+    }
+}
@@ -0,0 +1,36 @@
+package nl.kabisa.quotes.controller;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * GraphQL interceptor that identifies the client of a request, so it can be used for per-client limits. See
+ * {@link ClientIdResolver}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ClientIdInterceptor implements WebGraphQlInterceptor {
+
+    public static final String CLIENT_ID = "clientId";
+
+    private final ClientIdResolver clientIdResolver;
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        var remoteAddress = Optional.ofNullable(request.getRemoteAddress())
+            .map(InetSocketAddress::getAddress)
+            .map(InetAddress::getHostAddress)
+            .orElse(null);
+        var clientId = clientIdResolver.resolve(request.getHeaders().getFirst(ClientIdResolver.API_KEY_HEADER), remoteAddress);
+        request.configureExecutionInput((input, builder) -> builder.graphQLContext(Map.of(CLIENT_ID, clientId)).build());
+        return chain.next(request);
+    }
+}
@@ -0,0 +1,60 @@
+package nl.kabisa.quotes.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Identifies the client of a request, so it can be used for per-client limits.
+ * <p>
+ * A client is identified by its API key only if the key is one of the configured {@code quotes.clients.api-keys};
+ * otherwise, including for unknown keys, it is identified by its IP address. Inventing keys therefore does not give a
+ * client a fresh rate limit or deduplication identity. Keys are compared and stored by their SHA-256 digest, so the keys
+ * themselves never end up in the limiter caches.
+ */
+@Component
+public class ClientIdResolver {
+
+    public static final String API_KEY_HEADER = "X-API-Key";
+
+    private final Set<String> knownKeyDigests;
+
+    public ClientIdResolver(@Value("${quotes.clients.api-keys}") List<String> apiKeys) {
+        this.knownKeyDigests = apiKeys.stream()
+            .filter(apiKey -> !apiKey.isBlank())
+            .map(ClientIdResolver::digest)
+            .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Gets the ID of a client.
+     *
+     * @param apiKey        API key sent by the client, may be null
+     * @param remoteAddress IP address of the client, may be null
+     * @return an ID derived from the API key if it is known, otherwise from the IP address
+     */
+    public String resolve(String apiKey, String remoteAddress) {
+        if (apiKey != null && !apiKey.isBlank()) {
+            var keyDigest = digest(apiKey);
+            if (knownKeyDigests.contains(keyDigest)) {
+                return "key:" + keyDigest;
+            }
+        }
+        return "ip:" + (remoteAddress == null ? "unknown" : remoteAddress);
+    }
+
+    private static String digest(String apiKey) {
+        try {
+            var hash = MessageDigest.getInstance("SHA-256").digest(apiKey.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package nl.kabisa.quotes.controller;
+
+import static graphql.execution.preparsed.persisted.PersistedQuerySupport.PERSISTED_QUERY_MARKER;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.execution.preparsed.persisted.ApolloPersistedQuerySupport;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded cache of parsed and validated GraphQL documents, with support for automatic persisted queries.
+ * <p>
+ * Requests carrying a {@code persistedQuery} extension are resolved by the SHA-256 hash of their document, so clients only
+ * have to send the full document once. All other requests are cached by their document text, unless the document cache
+ * size is 0.
+ */
+@Component
+public class GraphQlDocumentCache implements PreparsedDocumentProvider {
+
+    private static final String PERSISTED_QUERY_EXTENSION = "persistedQuery";
+
+    private final boolean cacheDocuments;
+    private final Cache<String, PreparsedDocumentEntry> documents;
+    private final Cache<Object, PreparsedDocumentEntry> persistedQueries;
+    private final PersistedQuerySupport persistedQuerySupport;
+
+    public GraphQlDocumentCache(@Value("${quotes.graphql.document-cache.maximum-size}") long documentCacheSize,
+        @Value("${quotes.graphql.persisted-queries.maximum-size}") long persistedQueriesSize) {
+        // Caffeine evicts asynchronously, so a maximum size of 0 would still serve most lookups from the cache
+        this.cacheDocuments = documentCacheSize > 0;
+        this.documents = Caffeine.newBuilder().maximumSize(documentCacheSize).build();
+        this.persistedQueries = Caffeine.newBuilder().maximumSize(persistedQueriesSize).build();
+        this.persistedQuerySupport = new ApolloPersistedQuerySupport((id, input, onCacheMiss) ->
+            CompletableFuture.completedFuture(persistedQueries.get(id, key -> onCacheMiss.apply(documentOf(input)))));
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(ExecutionInput executionInput,
+        Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        if (executionInput.getExtensions().containsKey(PERSISTED_QUERY_EXTENSION)) {
+            return persistedQuerySupport.getDocumentAsync(executionInput, parseAndValidateFunction);
+        }
+        if (!cacheDocuments) {
+            return CompletableFuture.completedFuture(parseAndValidateFunction.apply(executionInput));
+        }
+        return CompletableFuture.completedFuture(
+            documents.get(executionInput.getQuery(), query -> parseAndValidateFunction.apply(executionInput)));
+    }
+
+    /**
+     * Gets the document sent along with a persisted query, or null if only the hash was sent.
+     */
+    private static String documentOf(ExecutionInput executionInput) {
+        var query = executionInput.getQuery();
+        return PERSISTED_QUERY_MARKER.equals(query) ? null : query;
+    }
+}
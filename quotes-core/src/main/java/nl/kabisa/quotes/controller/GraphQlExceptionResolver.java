@@ -1,9 +1,13 @@
 package nl.kabisa.quotes.controller;
 
+import graphql.ErrorClassification;
 import graphql.GraphQLError;
 import graphql.GraphqlErrorBuilder;
 import graphql.schema.DataFetchingEnvironment;
+import nl.kabisa.quotes.exception.DuplicateVoteException;
 import nl.kabisa.quotes.exception.ResourceNotFoundException;
+import nl.kabisa.quotes.exception.ServiceUnavailableException;
+import nl.kabisa.quotes.exception.TooManyRequestsException;
 import org.springframework.graphql.execution.DataFetcherExceptionResolverAdapter;
 import org.springframework.graphql.execution.ErrorType;
 import org.springframework.stereotype.Component;
@@ -23,6 +27,12 @@ public class GraphQlExceptionResolver extends DataFetcherExceptionResolverAdapte
 
         if (ex instanceof ResourceNotFoundException) {
             errorBuilder.errorType(ErrorType.NOT_FOUND);
+        } else if (ex instanceof TooManyRequestsException) {
+            errorBuilder.errorType(ErrorClassification.errorClassification("TOO_MANY_REQUESTS"));
+        } else if (ex instanceof DuplicateVoteException) {
+            errorBuilder.errorType(ErrorType.BAD_REQUEST);
+        } else if (ex instanceof ServiceUnavailableException) {
+            errorBuilder.errorType(ErrorClassification.errorClassification("SERVICE_UNAVAILABLE"));
         }
         return errorBuilder.build();
     }
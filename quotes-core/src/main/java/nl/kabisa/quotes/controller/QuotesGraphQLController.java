@@ -1,11 +1,18 @@
 package nl.kabisa.quotes.controller;
 
+import graphql.GraphQLContext;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
 import nl.kabisa.quotes.model.Quote;
+import nl.kabisa.quotes.model.RankedAuthor;
 import nl.kabisa.quotes.model.RankedQuote;
+import nl.kabisa.quotes.model.RankingChanges;
 import nl.kabisa.quotes.service.QuotesService;
+import org.dataloader.DataLoader;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.ContextValue;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.stereotype.Controller;
@@ -17,6 +24,8 @@ import org.springframework.stereotype.Controller;
 @RequiredArgsConstructor
 public class QuotesGraphQLController {
 
+    private static final String RANKING_CONTEXT_KEY = QuotesGraphQLController.class.getName() + ".ranking";
+
     private final QuotesService service;
 
     @QueryMapping("random")
@@ -24,14 +33,48 @@ public class QuotesGraphQLController {
         return service.getRandomQuote();
     }
 
+    @QueryMapping("quote")
+    public CompletableFuture<Quote> getQuote(@Argument Long id, DataLoader<Long, Quote> loader) {
+        return loader.load(id);
+    }
+
+    @QueryMapping("quotes")
+    public CompletableFuture<List<Quote>> getQuotes(@Argument List<Long> ids, DataLoader<Long, Quote> loader) {
+        return loader.loadMany(QuotesService.limitIds(ids))
+            .thenApply(quotes -> quotes.stream().filter(Objects::nonNull).toList());
+    }
+
+    /**
+     * Gets the ranking, computed at most once per request no matter how often the field is selected.
+     */
     @QueryMapping("ranking")
-    public List<RankedQuote> getRanking() {
-        return service.getRanking();
+    public List<RankedQuote> getRanking(GraphQLContext context) {
+        return context.computeIfAbsent(RANKING_CONTEXT_KEY, key -> service.getRanking());
+    }
+
+    @QueryMapping("rankingChanges")
+    public RankingChanges getRankingChanges(@Argument Long sinceVersion) {
+        return service.getRankingChanges(sinceVersion);
+    }
+
+    @QueryMapping("search")
+    public List<RankedQuote> search(@Argument String text, @Argument String author, @Argument int first) {
+        return service.search(text, author, first);
+    }
+
+    @QueryMapping("quotesByAuthor")
+    public List<RankedQuote> getQuotesByAuthor(@Argument String author, @Argument int first) {
+        return service.getQuotesByAuthor(author, first);
+    }
+
+    @QueryMapping("topAuthors")
+    public List<RankedAuthor> getTopAuthors(@Argument int first) {
+        return service.getTopAuthors(first);
     }
 
     @MutationMapping("vote")
-    public Boolean upvoteQuote(@Argument Long id) {
-        service.upvoteQuote(id);
+    public Boolean upvoteQuote(@Argument Long id, @ContextValue(ClientIdInterceptor.CLIENT_ID) String clientId) {
+        service.upvoteQuote(id, clientId);
         return true;
     }
 }
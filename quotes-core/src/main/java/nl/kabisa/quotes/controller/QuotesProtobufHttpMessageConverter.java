@@ -0,0 +1,126 @@
+package nl.kabisa.quotes.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import nl.kabisa.quotes.model.Quote;
+import nl.kabisa.quotes.model.RankedQuote;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+/**
+ * Writes quotes, ranked quotes and lists of them as Protobuf, following the messages in {@code proto/quote.proto}.
+ * <p>
+ * The messages are small and flat, so they are encoded directly instead of through generated classes.
+ */
+public class QuotesProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType APPLICATION_PROTOBUF = new MediaType("application", "x-protobuf");
+
+    private static final int WIRE_TYPE_VARINT = 0;
+    private static final int WIRE_TYPE_LENGTH_DELIMITED = 2;
+
+    public QuotesProtobufHttpMessageConverter() {
+        super(APPLICATION_PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Quote.class.equals(clazz) || RankedQuote.class.equals(clazz) || Collection.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        var resolved = ResolvableType.forType(type != null ? type : clazz);
+        var rawClass = resolved.toClass();
+        if (Collection.class.isAssignableFrom(rawClass)) {
+            rawClass = resolved.asCollection().getGeneric(0).toClass();
+        }
+        return (Quote.class.equals(rawClass) || RankedQuote.class.equals(rawClass)) && canWrite(mediaType);
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        var message = new ByteArrayOutputStream();
+        if (body instanceof Collection<?> items) {
+            for (Object item : items) {
+                writeMessage(message, 1, encode(item));
+            }
+        } else {
+            message.writeBytes(encode(body));
+        }
+        outputMessage.getHeaders().setContentLength(message.size());
+        message.writeTo(outputMessage.getBody());
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Reading Protobuf is not supported", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Reading Protobuf is not supported", inputMessage);
+    }
+
+    private static byte[] encode(Object item) {
+        var message = new ByteArrayOutputStream();
+        switch (item) {
+            case Quote quote -> {
+                if (quote.id() != null) {
+                    writeTag(message, 1, WIRE_TYPE_VARINT);
+                    writeVarint(message, quote.id());
+                }
+                writeString(message, 2, quote.quote());
+                writeString(message, 3, quote.author());
+            }
+            case RankedQuote rankedQuote -> {
+                writeMessage(message, 1, encode(rankedQuote.getQuote()));
+                writeTag(message, 2, WIRE_TYPE_VARINT);
+                writeVarint(message, rankedQuote.getVotes().get());
+            }
+            default -> throw new IllegalArgumentException("Cannot write " + item.getClass() + " as Protobuf");
+        }
+        return message.toByteArray();
+    }
+
+    private static void writeString(ByteArrayOutputStream message, int field, String value) {
+        if (value != null) {
+            writeMessage(message, field, value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void writeMessage(ByteArrayOutputStream message, int field, byte[] value) {
+        writeTag(message, field, WIRE_TYPE_LENGTH_DELIMITED);
+        writeVarint(message, value.length);
+        message.writeBytes(value);
+    }
+
+    private static void writeTag(ByteArrayOutputStream message, int field, int wireType) {
+        writeVarint(message, (long) field << 3 | wireType);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream message, long value) {
+        while ((value & ~0x7FL) != 0) {
+            message.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        message.write((int) value);
+    }
+}
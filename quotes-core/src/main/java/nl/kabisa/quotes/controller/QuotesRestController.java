@@ -1,16 +1,29 @@
 package nl.kabisa.quotes.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import nl.kabisa.quotes.exception.InvalidImportException;
 import nl.kabisa.quotes.model.Quote;
+import nl.kabisa.quotes.model.RankedAuthor;
 import nl.kabisa.quotes.model.RankedQuote;
+import nl.kabisa.quotes.model.RankingChanges;
 import nl.kabisa.quotes.service.QuotesService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * REST controller for managing quotes.
@@ -21,6 +34,12 @@ import org.springframework.web.bind.annotation.RestController;
 public class QuotesRestController {
 
     private final QuotesService quotesService;
+    private final ClientIdResolver clientIdResolver;
+
+    @GetMapping
+    public ResponseEntity<List<Quote>> getQuotes(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(new ArrayList<>(quotesService.getQuotes(QuotesService.limitIds(ids)).values()));
+    }
 
     @GetMapping("/random")
     public ResponseEntity<Quote> getRandomQuote() {
@@ -28,8 +47,10 @@ public class QuotesRestController {
     }
 
     @PostMapping("/vote/{id}")
-    public ResponseEntity<Void> upvoteQuote(@PathVariable Long id) {
-        quotesService.upvoteQuote(id);
+    public ResponseEntity<Void> upvoteQuote(@PathVariable Long id,
+        @RequestHeader(value = ClientIdResolver.API_KEY_HEADER, required = false) String apiKey,
+        HttpServletRequest request) {
+        quotesService.upvoteQuote(id, clientIdResolver.resolve(apiKey, request.getRemoteAddr()));
         return ResponseEntity.ok().build();
     }
 
@@ -37,4 +58,46 @@ public class QuotesRestController {
     public ResponseEntity<List<RankedQuote>> getRanking() {
         return ResponseEntity.ok(quotesService.getRanking());
     }
+
+    @GetMapping("/ranking/changes")
+    public ResponseEntity<RankingChanges> getRankingChanges(@RequestParam(defaultValue = "0") long since) {
+        return ResponseEntity.ok(quotesService.getRankingChanges(since));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<RankedQuote>> search(@RequestParam(required = false) String text,
+        @RequestParam(required = false) String author, @RequestParam(defaultValue = "10") int first) {
+        return ResponseEntity.ok(quotesService.search(text, author, first));
+    }
+
+    @GetMapping("/authors")
+    public ResponseEntity<List<RankedAuthor>> getTopAuthors(@RequestParam(defaultValue = "10") int first) {
+        return ResponseEntity.ok(quotesService.getTopAuthors(first));
+    }
+
+    @GetMapping("/authors/{author}")
+    public ResponseEntity<List<RankedQuote>> getQuotesByAuthor(@PathVariable String author,
+        @RequestParam(defaultValue = "10") int first) {
+        return ResponseEntity.ok(quotesService.getQuotesByAuthor(author, first));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportQuotes() {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(quotesService::exportQuotes);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Long> importQuotes(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(quotesService.importQuotes(request.getInputStream()));
+    }
+
+    @ExceptionHandler(InvalidImportException.class)
+    public ProblemDetail handleInvalidImport(InvalidImportException ex) {
+        var problem = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+        problem.setProperty("line", ex.getLine());
+        problem.setProperty("imported", ex.getImported());
+        return problem;
+    }
 }
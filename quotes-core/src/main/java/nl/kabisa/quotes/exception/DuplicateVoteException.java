@@ -0,0 +1,15 @@
+package nl.kabisa.quotes.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a client votes for a quote it already voted for.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class DuplicateVoteException extends RuntimeException {
+
+    public DuplicateVoteException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,22 @@
+package nl.kabisa.quotes.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when an import contains a record that cannot be imported. The records before it are imported.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+@Getter
+public class InvalidImportException extends RuntimeException {
+
+    private final long line;
+    private final long imported;
+
+    public InvalidImportException(String message, long line, long imported) {
+        super(message);
+        this.line = line;
+        this.imported = imported;
+    }
+}
@@ -0,0 +1,8 @@
+package nl.kabisa.quotes.model;
+
+/**
+ * An author with the total number of votes for their quotes.
+ */
+public record RankedAuthor(String author, int votes) {
+
+}
@@ -1,7 +1,11 @@
 package nl.kabisa.quotes.model;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.concurrent.atomic.AtomicInteger;
 import lombok.Getter;
+import lombok.Setter;
 
 /**
  * A quote with an associated vote count.
@@ -10,13 +14,37 @@ import lombok.Getter;
 public class RankedQuote {
 
     private final Quote quote;
-    private final AtomicInteger votes = new AtomicInteger(0);
+    private final AtomicInteger votes;
+
+    /**
+     * Document number of the quote in the search index, or -1 if it is not indexed. Lets the index find the quote when its
+     * votes change.
+     */
+    @JsonIgnore
+    @Setter
+    private int searchDocument = -1;
 
     public RankedQuote(Quote quote) {
+        this(quote, 0);
+    }
+
+    @JsonCreator
+    public RankedQuote(@JsonProperty("quote") Quote quote, @JsonProperty("votes") int votes) {
         this.quote = quote;
+        this.votes = new AtomicInteger(votes);
     }
 
     public void upvote() {
         votes.incrementAndGet();
     }
+
+    /**
+     * Merges a vote count from another source, keeping the highest count.
+     *
+     * @param votes vote count to merge
+     * @return number of votes added
+     */
+    public int mergeVotes(int votes) {
+        return Math.max(0, votes - this.votes.getAndAccumulate(votes, Math::max));
+    }
 }
@@ -0,0 +1,15 @@
+package nl.kabisa.quotes.model;
+
+import java.util.List;
+
+/**
+ * Vote counts that changed since a version of the ranking.
+ *
+ * @param version        version of the ranking after the changes, to ask for the next changes
+ * @param resyncRequired true if the changes since the requested version are no longer known, in which case the client
+ *                       must fetch the full ranking again and continue from this version
+ * @param changes        latest vote count of every quote whose votes changed, least recently changed first
+ */
+public record RankingChanges(long version, boolean resyncRequired, List<VoteCount> changes) {
+
+}
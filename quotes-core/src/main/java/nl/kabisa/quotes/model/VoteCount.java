@@ -0,0 +1,8 @@
+package nl.kabisa.quotes.model;
+
+/**
+ * The number of votes of a quote at some version of the ranking.
+ */
+public record VoteCount(Long quoteId, int votes) {
+
+}
@@ -0,0 +1,150 @@
+package nl.kabisa.quotes.repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+import nl.kabisa.quotes.model.RankedAuthor;
+import nl.kabisa.quotes.model.RankedQuote;
+
+/**
+ * Index of quotes per author, with a leaderboard of authors ordered by the total number of votes for their quotes.
+ * <p>
+ * Both are maintained incrementally: adding a quote or a vote only touches the entry of that author and repositions it in
+ * the leaderboard, so reading the top authors never requires a scan over all quotes.
+ */
+class AuthorIndex {
+
+    private static final Comparator<RankedAuthor> BY_VOTES = Comparator.comparingInt(RankedAuthor::votes).reversed()
+        .thenComparing(RankedAuthor::author);
+
+    private final Map<String, Author> authors = new ConcurrentHashMap<>();
+    private final NavigableSet<RankedAuthor> leaderboard = new ConcurrentSkipListSet<>(BY_VOTES);
+
+    /**
+     * Adds a quote to the index of its author. Only the votes the quote had when it was added to the repository are
+     * counted here; votes given after that must be added with {@link #addVotes(RankedQuote, int)}, even if they are given
+     * before the quote is added to this index.
+     *
+     * @param rankedQuote quote to add
+     * @param votes       votes of the quote when it was added to the repository
+     */
+    void add(RankedQuote rankedQuote, int votes) {
+        addAll(Map.of(rankedQuote, votes));
+    }
+
+    /**
+     * Adds a batch of quotes to the indexes of their authors, repositioning every author in the leaderboard only once.
+     *
+     * @param votesByQuote quotes to add, with the votes they had when they were added to the repository
+     */
+    void addAll(Map<RankedQuote, Integer> votesByQuote) {
+        var quotesByAuthor = votesByQuote.keySet().stream()
+            .collect(Collectors.groupingBy(rankedQuote -> rankedQuote.getQuote().author()));
+        quotesByAuthor.forEach((name, quotes) -> {
+            var author = authors.computeIfAbsent(name, Author::new);
+            synchronized (author) {
+                author.quotes.addAll(quotes);
+                author.sortedQuotes = null;
+                addVotes(author, quotes.stream().mapToInt(votesByQuote::get).sum());
+            }
+        });
+    }
+
+    /**
+     * Adds votes given to a quote to the total of its author.
+     *
+     * @param rankedQuote quote the votes were given to
+     * @param votes       number of votes given
+     */
+    void addVotes(RankedQuote rankedQuote, int votes) {
+        var author = authors.computeIfAbsent(rankedQuote.getQuote().author(), Author::new);
+        synchronized (author) {
+            author.sortedQuotes = null;
+            addVotes(author, votes);
+        }
+    }
+
+    /**
+     * Gets the quotes of an author ordered by number of votes. The order is kept until a quote of the author is added or
+     * gets votes, so repeated reads do not sort again.
+     *
+     * @param name  name of the author
+     * @param first maximum number of quotes
+     * @return quotes of the author
+     */
+    List<RankedQuote> getQuotes(String name, int first) {
+        var author = authors.get(name);
+        if (author == null) {
+            return List.of();
+        }
+
+        synchronized (author) {
+            if (author.sortedQuotes == null) {
+                author.sortedQuotes = sortByVotes(author.quotes);
+            }
+            return List.copyOf(author.sortedQuotes.subList(0, Math.min(first, author.sortedQuotes.size())));
+        }
+    }
+
+    /**
+     * Gets the authors with the most votes. An author whose position is being updated concurrently may be missing from
+     * the result.
+     *
+     * @param first maximum number of authors
+     * @return authors ordered by total number of votes
+     */
+    List<RankedAuthor> getTopAuthors(int first) {
+        return leaderboard.stream()
+            .limit(first)
+            .toList();
+    }
+
+    /**
+     * Removes all authors from the index.
+     */
+    void clear() {
+        authors.clear();
+        leaderboard.clear();
+    }
+
+    private void addVotes(Author author, int votes) {
+        if (author.ranking != null) {
+            if (votes == 0) {
+                return;
+            }
+            leaderboard.remove(author.ranking);
+        }
+        var previousVotes = author.ranking == null ? 0 : author.ranking.votes();
+        author.ranking = new RankedAuthor(author.name, previousVotes + votes);
+        leaderboard.add(author.ranking);
+    }
+
+    /**
+     * Sorts quotes by a snapshot of their votes, as the votes may change while sorting.
+     */
+    private static List<RankedQuote> sortByVotes(List<RankedQuote> quotes) {
+        var votes = new IdentityHashMap<RankedQuote, Integer>(quotes.size());
+        quotes.forEach(rankedQuote -> votes.put(rankedQuote, rankedQuote.getVotes().get()));
+        var sorted = new ArrayList<>(quotes);
+        sorted.sort(Comparator.comparing(votes::get, Comparator.reverseOrder()));
+        return sorted;
+    }
+
+    private static final class Author {
+
+        private final String name;
+        private final List<RankedQuote> quotes = new ArrayList<>();
+        private List<RankedQuote> sortedQuotes;
+        private RankedAuthor ranking;
+
+        private Author(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,580 @@
+package nl.kabisa.quotes.repository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import nl.kabisa.quotes.model.RankedQuote;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory inverted index for full-text search over the cached quotes.
+ * <p>
+ * Quote texts and authors are tokenized and lowercased. Every indexed quote gets a dense document number, and each term
+ * keeps a postings list of document numbers in ascending order together with the positions of the term in that
+ * document. Since quotes are only ever added, postings are appended in order and queries intersect them with a merge.
+ * <p>
+ * To find the top results without scoring every match of a frequent term, postings and documents are divided into blocks
+ * of 128. Each postings block keeps the highest term frequency in it, and each block of document numbers the highest vote
+ * count, which gives an upper bound on the relevance of every document in a block. Queries search the blocks with the
+ * highest bounds first, then skip every block that cannot beat the results found so far.
+ */
+@Component
+public class QuoteSearchIndex implements MeterBinder {
+
+    private static final Pattern PHRASE = Pattern.compile("\"([^\"]*)\"");
+    private static final int BLOCK_SHIFT = 7;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+    private static final Comparator<Hit> RELEVANCE = Comparator.comparingDouble(Hit::score)
+        .thenComparingInt(Hit::votes);
+
+    private final Map<String, Postings> textPostings = new HashMap<>();
+    private final Map<String, Postings> authorPostings = new HashMap<>();
+    private RankedQuote[] documents = new RankedQuote[1024];
+    private AtomicIntegerArray blockMaxVotes = new AtomicIntegerArray(documents.length >>> BLOCK_SHIFT);
+    private int documentCount;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds a quote to the index. A quote must only be added once.
+     *
+     * @param rankedQuote quote to add
+     */
+    public void add(RankedQuote rankedQuote) {
+        addAll(List.of(rankedQuote));
+    }
+
+    /**
+     * Adds a batch of quotes to the index. A quote must only be added once.
+     *
+     * @param rankedQuotes quotes to add
+     */
+    public void addAll(Collection<RankedQuote> rankedQuotes) {
+        lock.writeLock().lock();
+        try {
+            for (RankedQuote rankedQuote : rankedQuotes) {
+                if (documentCount == documents.length) {
+                    documents = Arrays.copyOf(documents, documents.length * 2);
+                    blockMaxVotes = copyOf(blockMaxVotes, documents.length >>> BLOCK_SHIFT);
+                }
+                int document = documentCount++;
+                documents[document] = rankedQuote;
+                rankedQuote.setSearchDocument(document);
+                blockMaxVotes.accumulateAndGet(document >>> BLOCK_SHIFT, rankedQuote.getVotes().get(), Math::max);
+                addTerms(textPostings, document, tokenize(rankedQuote.getQuote().quote()));
+                addTerms(authorPostings, document, tokenize(rankedQuote.getQuote().author()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Updates the index after the votes of a quote have increased, so that its block is not skipped by searches.
+     *
+     * @param rankedQuote quote that got votes
+     */
+    public void updateVotes(RankedQuote rankedQuote) {
+        lock.readLock().lock();
+        try {
+            // A quote saved before the index was cleared may point to another document, which only makes a bound higher
+            int document = rankedQuote.getSearchDocument();
+            if (document >= 0 && document < documentCount) {
+                blockMaxVotes.accumulateAndGet(document >>> BLOCK_SHIFT, rankedQuote.getVotes().get(), Math::max);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Searches quotes containing all terms of the given text and written by an author matching all terms of the given
+     * author. Parts of the text between double quotes must appear as a phrase. Results are ordered by relevance, with the
+     * number of votes as tie-breaker.
+     *
+     * @param text   terms and phrases to search for, may be null
+     * @param author author terms to filter on, may be null
+     * @param first  maximum number of results
+     * @return matching quotes, most relevant first
+     */
+    public List<RankedQuote> search(String text, String author, int first) {
+        var phrases = new ArrayList<List<String>>();
+        var terms = new ArrayList<String>();
+        if (text != null) {
+            var matcher = PHRASE.matcher(text);
+            while (matcher.find()) {
+                var phrase = tokenize(matcher.group(1));
+                terms.addAll(phrase);
+                if (phrase.size() > 1) {
+                    phrases.add(phrase);
+                }
+            }
+            terms.addAll(tokenize(matcher.replaceAll(" ")));
+        }
+        var authorTerms = author == null ? List.<String>of() : tokenize(author);
+        if ((terms.isEmpty() && authorTerms.isEmpty()) || first <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            var textCursors = cursors(textPostings, terms);
+            var authorCursors = cursors(authorPostings, authorTerms);
+            if (textCursors == null || authorCursors == null) {
+                return List.of();
+            }
+            return collect(textCursors, authorCursors, phrases, first);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all quotes from the index.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            textPostings.clear();
+            authorPostings.clear();
+            documents = new RankedQuote[1024];
+            blockMaxVotes = new AtomicIntegerArray(documents.length >>> BLOCK_SHIFT);
+            documentCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of distinct terms in the index.
+     *
+     * @return number of terms
+     */
+    public int getTermCount() {
+        lock.readLock().lock();
+        try {
+            return textPostings.size() + authorPostings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Estimates the heap memory used by the index, assuming compressed object pointers.
+     *
+     * @return estimated size in bytes
+     */
+    public long getEstimatedSizeInBytes() {
+        lock.readLock().lock();
+        try {
+            return 32L + 4L * (documents.length + blockMaxVotes.length()) + estimatedSize(textPostings)
+                + estimatedSize(authorPostings);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("quotes.search.index.documents", this, index -> index.documentCount)
+            .description("Number of quotes in the search index")
+            .register(registry);
+        Gauge.builder("quotes.search.index.terms", this, QuoteSearchIndex::getTermCount)
+            .description("Number of distinct terms in the search index")
+            .register(registry);
+        Gauge.builder("quotes.search.index.size", this, QuoteSearchIndex::getEstimatedSizeInBytes)
+            .description("Estimated heap memory used by the search index")
+            .baseUnit(BaseUnits.BYTES)
+            .register(registry);
+    }
+
+    /**
+     * Splits text into lowercased tokens of letters and digits.
+     */
+    private static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        var tokens = new ArrayList<String>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean tokenChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static void addTerms(Map<String, Postings> postings, int document, List<String> tokens) {
+        for (int position = 0; position < tokens.size(); position++) {
+            postings.computeIfAbsent(tokens.get(position), term -> new Postings()).add(document, position);
+        }
+    }
+
+    /**
+     * Creates a cursor per distinct term, or returns null if one of the terms is not indexed at all.
+     */
+    private static Map<String, Cursor> cursors(Map<String, Postings> postings, List<String> terms) {
+        var cursors = new LinkedHashMap<String, Cursor>();
+        for (String term : terms) {
+            var termPostings = postings.get(term);
+            if (termPostings == null) {
+                return null;
+            }
+            cursors.putIfAbsent(term, new Cursor(termPostings));
+        }
+        return cursors;
+    }
+
+    private List<RankedQuote> collect(Map<String, Cursor> textCursors, Map<String, Cursor> authorCursors,
+        List<List<String>> phrases, int first) {
+        var query = new Query(textCursors, authorCursors, phrases, first);
+
+        // Upper bounds of the relevance in each block of the lead postings, with a negative score if none can match
+        int blockCount = (query.lead.postings.size + BLOCK_SIZE - 1) >>> BLOCK_SHIFT;
+        var maxScores = new double[blockCount];
+        var maxVotes = new int[blockCount];
+        for (int block = 0; block < blockCount; block++) {
+            maxScores[block] = query.maxScore(block);
+            maxVotes[block] = query.maxVotes(block);
+        }
+
+        // Search the blocks with the highest bounds first, so that the hits found there rule out most other blocks
+        Comparator<Integer> byBound = (a, b) -> compare(maxScores[a], maxVotes[a], maxScores[b], maxVotes[b]);
+        var best = new PriorityQueue<>(byBound);
+        for (int block = 0; block < blockCount; block++) {
+            if (maxScores[block] >= 0 && (best.size() < first || byBound.compare(block, best.peek()) > 0)) {
+                best.add(block);
+                if (best.size() > first) {
+                    best.poll();
+                }
+            }
+        }
+        var searched = new boolean[blockCount];
+        for (int block : best) {
+            query.search(block);
+            searched[block] = true;
+        }
+        for (int block = 0; block < blockCount; block++) {
+            if (!searched[block] && maxScores[block] >= 0 && (query.top.size() < first
+                || compare(maxScores[block], maxVotes[block], query.top.peek().score(), query.top.peek().votes()) > 0)) {
+                query.search(block);
+            }
+        }
+
+        var result = new ArrayList<RankedQuote>(query.top.size());
+        while (!query.top.isEmpty()) {
+            result.add(query.top.poll().quote());
+        }
+        return result.reversed();
+    }
+
+    /**
+     * Checks whether a document with the given score would rank above the weakest hit, only reading its votes on a tie.
+     */
+    private static boolean beats(double score, RankedQuote rankedQuote, Hit weakest) {
+        int compare = Double.compare(score, weakest.score());
+        return compare > 0 || (compare == 0 && rankedQuote.getVotes().get() > weakest.votes());
+    }
+
+    private static int compare(double score, int votes, double otherScore, int otherVotes) {
+        int compare = Double.compare(score, otherScore);
+        return compare != 0 ? compare : Integer.compare(votes, otherVotes);
+    }
+
+    private static AtomicIntegerArray copyOf(AtomicIntegerArray array, int length) {
+        var copy = new AtomicIntegerArray(length);
+        for (int i = 0; i < array.length(); i++) {
+            copy.set(i, array.get(i));
+        }
+        return copy;
+    }
+
+    /**
+     * Checks whether the phrase appears in the current document of the cursors, by finding a start position of the first
+     * term for which every next term appears at the next position.
+     */
+    private static boolean containsPhrase(Map<String, Cursor> cursors, List<String> phrase) {
+        var head = cursors.get(phrase.getFirst());
+        for (int start = head.positionsFrom(); start < head.positionsTo(); start++) {
+            int position = head.postings.positions[start];
+            boolean match = true;
+            for (int offset = 1; offset < phrase.size() && match; offset++) {
+                match = cursors.get(phrase.get(offset)).hasPosition(position + offset);
+            }
+            if (match) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long estimatedSize(Map<String, Postings> postings) {
+        long size = 64L + 36L * postings.size();
+        for (var entry : postings.entrySet()) {
+            var termPostings = entry.getValue();
+            size += 40L + 2L * entry.getKey().length();
+            size += 88L + 4L * (termPostings.documents.length + termPostings.positionStarts.length
+                + termPostings.positions.length + termPostings.blockMaxFrequencies.length);
+        }
+        return size;
+    }
+
+    /**
+     * Cursors and best hits of a search. The rarest term leads: its postings are searched block by block, advancing the
+     * cursors of the other terms to each of its documents.
+     */
+    private final class Query {
+
+        private final Map<String, Cursor> textCursors;
+        private final List<List<String>> phrases;
+        private final int first;
+        private final Cursor lead;
+        private final Cursor[] others;
+        private final Cursor[] scored;
+        private final PriorityQueue<Hit> top = new PriorityQueue<>(RELEVANCE);
+
+        private Query(Map<String, Cursor> textCursors, Map<String, Cursor> authorCursors, List<List<String>> phrases,
+            int first) {
+            this.textCursors = textCursors;
+            this.phrases = phrases;
+            this.first = first;
+            var all = new ArrayList<Cursor>(textCursors.values());
+            all.addAll(authorCursors.values());
+            all.sort(Comparator.comparingInt(cursor -> cursor.postings.size));
+            lead = all.getFirst();
+            others = all.subList(1, all.size()).toArray(Cursor[]::new);
+            scored = textCursors.values().toArray(Cursor[]::new);
+            for (Cursor cursor : scored) {
+                cursor.weight = Math.log(1 + (double) documentCount / cursor.postings.size);
+            }
+        }
+
+        /**
+         * Bounds the score of the documents in a block of the lead postings by the highest frequency of each term in the
+         * part of its postings that overlaps the block. This moves the other cursors to the start of the block, searching
+         * forward from where they are.
+         *
+         * @return the highest possible score, or -1 if a term does not appear in any document of the block
+         */
+        private double maxScore(int block) {
+            int from = block << BLOCK_SHIFT;
+            int to = Math.min(from + BLOCK_SIZE, lead.postings.size);
+            lead.maxFrequency = lead.postings.maxFrequency(from, to);
+            for (Cursor cursor : others) {
+                int start = cursor.postings.indexOf(lead.postings.documents[from], cursor.index);
+                int end = cursor.postings.indexOf(lead.postings.documents[to - 1] + 1, start);
+                if (start == end) {
+                    return -1;
+                }
+                cursor.index = start;
+                cursor.maxFrequency = cursor.postings.maxFrequency(start, end);
+            }
+            // Summed in the same order as the scores of the documents, so that rounding cannot make a score exceed it
+            double score = 0;
+            for (Cursor cursor : scored) {
+                score += cursor.maxFrequency * cursor.weight;
+            }
+            return score;
+        }
+
+        /**
+         * Bounds the votes of the documents in a block of the lead postings by those of the blocks of documents it spans.
+         */
+        private int maxVotes(int block) {
+            int from = block << BLOCK_SHIFT;
+            int to = Math.min(from + BLOCK_SIZE, lead.postings.size);
+            int votes = 0;
+            for (int documentBlock = lead.postings.documents[from] >>> BLOCK_SHIFT;
+                documentBlock <= lead.postings.documents[to - 1] >>> BLOCK_SHIFT; documentBlock++) {
+                votes = Math.max(votes, blockMaxVotes.get(documentBlock));
+            }
+            return votes;
+        }
+
+        /**
+         * Scores the documents in a block of the lead postings that match all terms and phrases, keeping the best hits.
+         */
+        private void search(int block) {
+            for (Cursor cursor : others) {
+                cursor.index = 0;
+            }
+            maxScore(block);
+
+            int from = block << BLOCK_SHIFT;
+            int to = Math.min(from + BLOCK_SIZE, lead.postings.size);
+            candidates:
+            for (int i = from; i < to; i++) {
+                int document = lead.postings.documents[i];
+                lead.index = i;
+                // Bounding, scoring and only then matching phrases rules out most documents before the costly steps
+                if (top.size() == first) {
+                    double maxScore = 0;
+                    for (Cursor cursor : scored) {
+                        maxScore += (cursor == lead ? cursor.frequency() : cursor.maxFrequency) * cursor.weight;
+                    }
+                    if (!beats(maxScore, documents[document], top.peek())) {
+                        continue;
+                    }
+                }
+                for (Cursor cursor : others) {
+                    if (!cursor.advanceTo(document)) {
+                        continue candidates;
+                    }
+                }
+                double score = 0;
+                for (Cursor cursor : scored) {
+                    score += cursor.frequency() * cursor.weight;
+                }
+                if (top.size() == first && !beats(score, documents[document], top.peek())) {
+                    continue;
+                }
+                for (List<String> phrase : phrases) {
+                    if (!containsPhrase(textCursors, phrase)) {
+                        continue candidates;
+                    }
+                }
+
+                top.add(new Hit(documents[document], score));
+                if (top.size() > first) {
+                    top.poll();
+                }
+            }
+        }
+    }
+
+    private record Hit(RankedQuote quote, double score) {
+
+        private int votes() {
+            return quote.getVotes().get();
+        }
+    }
+
+    /**
+     * Postings of a single term: ascending document numbers, and for document {@code i} its positions in
+     * {@code positions[positionStarts[i]..positionStarts[i + 1]]}. Block {@code b} of 128 documents has
+     * the highest number of positions of any of them in {@code blockMaxFrequencies[b]}.
+     */
+    private static final class Postings {
+
+        private int[] documents = new int[2];
+        private int[] positionStarts = new int[3];
+        private int[] positions = new int[2];
+        private int[] blockMaxFrequencies = new int[1];
+        private int size;
+
+        /**
+         * Adds a position of the term. Documents are added in ascending order, and positions within a document too.
+         */
+        private void add(int document, int position) {
+            if (size == 0 || documents[size - 1] != document) {
+                if (size + 1 == documents.length) {
+                    documents = Arrays.copyOf(documents, documents.length * 2);
+                    positionStarts = Arrays.copyOf(positionStarts, positionStarts.length * 2);
+                }
+                documents[size++] = document;
+                positionStarts[size] = positionStarts[size - 1];
+            }
+            int end = positionStarts[size];
+            if (end == positions.length) {
+                positions = Arrays.copyOf(positions, positions.length * 2);
+            }
+            positions[end] = position;
+            positionStarts[size] = end + 1;
+
+            int block = (size - 1) >>> BLOCK_SHIFT;
+            if (block == blockMaxFrequencies.length) {
+                blockMaxFrequencies = Arrays.copyOf(blockMaxFrequencies, blockMaxFrequencies.length * 2);
+            }
+            blockMaxFrequencies[block] = Math.max(blockMaxFrequencies[block], end + 1 - positionStarts[size - 1]);
+        }
+
+        /**
+         * Gets the index of the given document, or of the first document after it, searching from the given index.
+         */
+        private int indexOf(int document, int from) {
+            int found = Arrays.binarySearch(documents, from, size, document);
+            return found >= 0 ? found : -found - 1;
+        }
+
+        /**
+         * Gets the highest frequency in the blocks spanning the documents with the given indexes.
+         */
+        private int maxFrequency(int from, int to) {
+            int frequency = 0;
+            for (int block = from >>> BLOCK_SHIFT; block <= (to - 1) >>> BLOCK_SHIFT; block++) {
+                frequency = Math.max(frequency, blockMaxFrequencies[block]);
+            }
+            return frequency;
+        }
+    }
+
+    /**
+     * Forward-only cursor over the postings of a term.
+     */
+    private static final class Cursor {
+
+        private final Postings postings;
+        private int index;
+        // Inverse document frequency of a text term, and the highest frequency found while bounding a block
+        private double weight;
+        private int maxFrequency;
+
+        private Cursor(Postings postings) {
+            this.postings = postings;
+        }
+
+        /**
+         * Advances to the given document, using exponential search since the documents are ascending.
+         *
+         * @return true if the term appears in the document
+         */
+        private boolean advanceTo(int document) {
+            int step = 1;
+            int low = index;
+            int high = index;
+            while (high < postings.size && postings.documents[high] < document) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            int found = Arrays.binarySearch(postings.documents, low, Math.min(high + 1, postings.size), document);
+            index = found >= 0 ? found : -found - 1;
+            return found >= 0;
+        }
+
+        private int positionsFrom() {
+            return postings.positionStarts[index];
+        }
+
+        private int positionsTo() {
+            return postings.positionStarts[index + 1];
+        }
+
+        private int frequency() {
+            return positionsTo() - positionsFrom();
+        }
+
+        private boolean hasPosition(int position) {
+            return Arrays.binarySearch(postings.positions, positionsFrom(), positionsTo(), position) >= 0;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package nl.kabisa.quotes.repository;
+
+/**
+ * Event published when all quotes are cleared from the {@link QuotesRepository}, so state derived from its contents can
+ * be reset.
+ */
+public record QuotesFlushedEvent() {
+
+}
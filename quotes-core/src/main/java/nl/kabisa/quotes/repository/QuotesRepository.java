@@ -1,12 +1,24 @@
 package nl.kabisa.quotes.repository;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import nl.kabisa.quotes.model.Quote;
+import nl.kabisa.quotes.model.RankedAuthor;
 import nl.kabisa.quotes.model.RankedQuote;
+import nl.kabisa.quotes.model.RankingChanges;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -15,46 +27,154 @@ import org.springframework.stereotype.Repository;
 @Repository
 public class QuotesRepository {
 
+    private static final int RANKING_SIZE = 10;
     private final Map<Long, RankedQuote> quotes = new ConcurrentHashMap<>();
+    private final List<Quote> randomPool = new ArrayList<>();
     private final Random randomizer = new Random();
+    private final Cache<Integer, List<RankedQuote>> rankings;
+    private final QuoteSearchIndex searchIndex;
+    private final AuthorIndex authorIndex = new AuthorIndex();
+    private final RankingChangeLog changeLog;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public QuotesRepository(@Value("${quotes.ranking.cache-ttl}") Duration rankingCacheTtl,
+        @Value("${quotes.ranking.change-log.capacity}") int changeLogCapacity,
+        QuoteSearchIndex searchIndex, ApplicationEventPublisher eventPublisher) {
+        this.searchIndex = searchIndex;
+        this.eventPublisher = eventPublisher;
+        this.changeLog = new RankingChangeLog(changeLogCapacity);
+        this.rankings = Caffeine.newBuilder()
+            .expireAfterWrite(rankingCacheTtl)
+            .build();
+    }
 
     /**
      * Saves a quote if it does not already exist.
      *
      * @param quote quote to save
      * @return the saved quote
+     * @throws IllegalArgumentException if the quote has no ID or author
      */
     public Quote save(Quote quote) {
-        quotes.putIfAbsent(quote.id(), new RankedQuote(quote));
+        requireIdAndAuthor(quote);
+        var rankedQuote = new RankedQuote(quote);
+        if (quotes.putIfAbsent(quote.id(), rankedQuote) == null) {
+            addToRandomPool(List.of(rankedQuote));
+            searchIndex.add(rankedQuote);
+            authorIndex.add(rankedQuote, 0);
+            invalidateRanking();
+        }
         return quote;
     }
 
+    /**
+     * Saves a batch of quotes with their vote counts. Quotes that already exist keep the highest of both vote counts.
+     *
+     * @param rankedQuotes quotes to merge
+     * @throws IllegalArgumentException if a quote has no ID or author, in which case none of the quotes are saved
+     */
+    public void merge(Collection<RankedQuote> rankedQuotes) {
+        rankedQuotes.forEach(rankedQuote -> requireIdAndAuthor(rankedQuote.getQuote()));
+        var added = new ArrayList<RankedQuote>(rankedQuotes.size());
+        var addedVotes = new IdentityHashMap<RankedQuote, Integer>(rankedQuotes.size());
+        for (RankedQuote rankedQuote : rankedQuotes) {
+            // Votes given once the quote is visible are added to its author separately, so read them before that
+            int votes = rankedQuote.getVotes().get();
+            var existing = quotes.putIfAbsent(rankedQuote.getQuote().id(), rankedQuote);
+            if (existing == null) {
+                added.add(rankedQuote);
+                addedVotes.put(rankedQuote, votes);
+                if (votes > 0) {
+                    changeLog.record(rankedQuote);
+                }
+            } else {
+                int mergedVotes = existing.mergeVotes(votes);
+                if (mergedVotes > 0) {
+                    searchIndex.updateVotes(existing);
+                    authorIndex.addVotes(existing, mergedVotes);
+                    changeLog.record(existing);
+                }
+            }
+        }
+        addToRandomPool(added);
+        searchIndex.addAll(added);
+        authorIndex.addAll(addedVotes);
+        invalidateRanking();
+    }
+
+    /**
+     * Upvotes a quote by its ID.
+     *
+     * @param id ID of the quote
+     * @return the upvoted ranked quote, or empty if the quote is not found
+     */
+    public Optional<RankedQuote> upvote(Long id) {
+        var rankedQuote = quotes.get(id);
+        if (rankedQuote == null) {
+            return Optional.empty();
+        }
+
+        rankedQuote.upvote();
+        searchIndex.updateVotes(rankedQuote);
+        authorIndex.addVotes(rankedQuote, 1);
+        changeLog.record(rankedQuote);
+        invalidateRanking();
+        return Optional.of(rankedQuote);
+    }
+
     /**
      * Gets a random quote from the repository.
      *
      * @return random quote, or empty if no quotes are available
      */
     public Optional<Quote> getRandomQuote() {
-        if (quotes.isEmpty()) {
-            return Optional.empty();
+        synchronized (randomPool) {
+            if (randomPool.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(randomPool.get(randomizer.nextInt(randomPool.size())));
         }
+    }
 
-        return quotes.values().stream()
-            .skip(randomizer.nextInt(quotes.size()))
-            .findFirst()
-            .map(RankedQuote::getQuote);
+    /**
+     * Gets the number of quotes in the repository.
+     *
+     * @return number of quotes
+     */
+    public int getQuoteCount() {
+        return quotes.size();
     }
 
     /**
-     * Gets all quotes sorted by number of votes.
+     * Gets all quotes sorted by number of votes. The ranking is cached until a vote is given, a new quote is saved or the
+     * cache TTL expires.
      *
      * @return list of ranked quotes
      */
     public List<RankedQuote> getRankedQuotesTop10() {
-        return quotes.values().stream()
+        return rankings.get(RANKING_SIZE, limit -> quotes.values().stream()
             .sorted((q1, q2) -> Integer.compare(q2.getVotes().get(), q1.getVotes().get()))
-            .limit(10)
-            .toList();
+            .limit(limit)
+            .toList());
+    }
+
+    /**
+     * Gets the vote counts that changed since a version of the ranking, see {@link RankingChangeLog}.
+     *
+     * @param sinceVersion version the client has
+     * @return changes since that version, or a resync signal if they are no longer known
+     */
+    public RankingChanges getRankingChangesSince(long sinceVersion) {
+        return changeLog.getChangesSince(sinceVersion);
+    }
+
+    /**
+     * Performs the given action for every ranked quote, without copying the repository.
+     *
+     * @param action action to perform
+     */
+    public void forEach(Consumer<RankedQuote> action) {
+        quotes.values().forEach(action);
     }
 
     /**
@@ -68,9 +188,93 @@ public class QuotesRepository {
     }
 
     /**
-     * Clears all quotes from the repository.
+     * Gets the quotes for the given IDs in a single pass over the repository. IDs that are not present are left out.
+     *
+     * @param ids IDs of the quotes
+     * @return quotes by ID, in the order of the given IDs
+     */
+    public Map<Long, Quote> getQuotes(Collection<Long> ids) {
+        var result = new LinkedHashMap<Long, Quote>();
+        for (Long id : ids) {
+            var rankedQuote = quotes.get(id);
+            if (rankedQuote != null) {
+                result.put(id, rankedQuote.getQuote());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Searches quotes by text and author, see {@link QuoteSearchIndex#search(String, String, int)}.
+     *
+     * @param text   terms and phrases to search for, may be null
+     * @param author author terms to filter on, may be null
+     * @param first  maximum number of results
+     * @return matching quotes, most relevant first
+     */
+    public List<RankedQuote> search(String text, String author, int first) {
+        return searchIndex.search(text, author, first);
+    }
+
+    /**
+     * Gets the quotes of an author ordered by number of votes.
+     *
+     * @param author name of the author
+     * @param first  maximum number of quotes
+     * @return ranked quotes of the author
+     */
+    public List<RankedQuote> getRankedQuotesByAuthor(String author, int first) {
+        return authorIndex.getQuotes(author, first);
+    }
+
+    /**
+     * Gets the authors ordered by the total number of votes for their quotes.
+     *
+     * @param first maximum number of authors
+     * @return ranked authors
+     */
+    public List<RankedAuthor> getTopAuthors(int first) {
+        return authorIndex.getTopAuthors(first);
+    }
+
+    /**
+     * Clears all quotes from the repository and publishes a {@link QuotesFlushedEvent}.
      */
     public void flush() {
         quotes.clear();
+        synchronized (randomPool) {
+            randomPool.clear();
+        }
+        searchIndex.clear();
+        authorIndex.clear();
+        invalidateRanking();
+        changeLog.clear();
+        eventPublisher.publishEvent(new QuotesFlushedEvent());
+    }
+
+    /**
+     * Invalidates the cached ranking. Unlike {@code invalidateAll}, invalidating the key waits for a ranking that is being
+     * computed and discards it, so a ranking computed from votes before the change cannot stay cached until it expires.
+     */
+    private void invalidateRanking() {
+        rankings.invalidate(RANKING_SIZE);
+    }
+
+    /**
+     * Adds new quotes to the list random quotes are picked from, so picking one does not need to walk the map.
+     */
+    private void addToRandomPool(Collection<RankedQuote> rankedQuotes) {
+        synchronized (randomPool) {
+            rankedQuotes.forEach(rankedQuote -> randomPool.add(rankedQuote.getQuote()));
+        }
+    }
+
+    /**
+     * Rejects a quote that cannot be stored or indexed, before any of the indexes is touched.
+     */
+    private static void requireIdAndAuthor(Quote quote) {
+        if (quote.id() == null || quote.author() == null) {
+            throw new IllegalArgumentException("Quote " + quote.id() + " must have an ID and an author");
+        }
     }
 }
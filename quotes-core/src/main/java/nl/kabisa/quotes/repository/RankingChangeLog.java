@@ -0,0 +1,86 @@
+package nl.kabisa.quotes.repository;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import nl.kabisa.quotes.model.RankedQuote;
+import nl.kabisa.quotes.model.RankingChanges;
+import nl.kabisa.quotes.model.VoteCount;
+
+/**
+ * Bounded log of vote count changes, so clients mirroring the ranking only need to fetch what changed since the version
+ * they have.
+ * <p>
+ * Every change increments the version and stores the new vote count of the quote in a ring buffer, which keeps the most
+ * recent changes only. Entries hold absolute counts rather than increments, so applying a change twice is harmless. A
+ * client asking for changes older than the buffer is told to resync.
+ */
+class RankingChangeLog {
+
+    private final long[] quoteIds;
+    private final int[] votes;
+    private long version;
+    private long oldestVersion;
+
+    RankingChangeLog(int capacity) {
+        this.quoteIds = new long[capacity];
+        this.votes = new int[capacity];
+    }
+
+    /**
+     * Records the current vote count of a quote as a new version. The count is read while holding the lock, so a later
+     * version never holds an older count of the same quote.
+     *
+     * @param rankedQuote quote whose votes changed
+     */
+    synchronized void record(RankedQuote rankedQuote) {
+        int index = (int) (version % quoteIds.length);
+        quoteIds[index] = rankedQuote.getQuote().id();
+        votes[index] = rankedQuote.getVotes().get();
+        version++;
+        oldestVersion = Math.max(oldestVersion, version - quoteIds.length);
+    }
+
+    /**
+     * Gets the latest vote count of every quote that changed after the given version. Only copying the entries holds the
+     * lock, so reading changes hardly delays votes.
+     *
+     * @param sinceVersion version the client has
+     * @return changes since that version, or a resync signal if they are no longer known
+     */
+    RankingChanges getChangesSince(long sinceVersion) {
+        long currentVersion;
+        long[] changedQuoteIds;
+        int[] changedVotes;
+        synchronized (this) {
+            currentVersion = version;
+            if (sinceVersion < oldestVersion || sinceVersion > version) {
+                return new RankingChanges(version, true, List.of());
+            }
+            int count = (int) (version - sinceVersion);
+            changedQuoteIds = new long[count];
+            changedVotes = new int[count];
+            for (int i = 0; i < count; i++) {
+                int index = (int) ((sinceVersion + i) % quoteIds.length);
+                changedQuoteIds[i] = quoteIds[index];
+                changedVotes[i] = votes[index];
+            }
+        }
+
+        var latest = new LinkedHashMap<Long, Integer>();
+        for (int i = 0; i < changedQuoteIds.length; i++) {
+            latest.remove(changedQuoteIds[i]);
+            latest.put(changedQuoteIds[i], changedVotes[i]);
+        }
+        return new RankingChanges(currentVersion, false, latest.entrySet().stream()
+            .map(entry -> new VoteCount(entry.getKey(), entry.getValue()))
+            .toList());
+    }
+
+    /**
+     * Forgets all changes. The version keeps increasing, so every client is told to resync.
+     */
+    synchronized void clear() {
+        version++;
+        oldestVersion = version;
+    }
+}
@@ -1,12 +1,29 @@
 package nl.kabisa.quotes.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import nl.kabisa.quotes.client.DummyJsonClient;
+import nl.kabisa.quotes.client.QuoteSources;
+import nl.kabisa.quotes.exception.DuplicateVoteException;
+import nl.kabisa.quotes.exception.InvalidImportException;
 import nl.kabisa.quotes.exception.ResourceNotFoundException;
+import nl.kabisa.quotes.exception.ServiceUnavailableException;
+import nl.kabisa.quotes.exception.TooManyRequestsException;
 import nl.kabisa.quotes.model.Quote;
+import nl.kabisa.quotes.model.RankedAuthor;
 import nl.kabisa.quotes.model.RankedQuote;
+import nl.kabisa.quotes.model.RankingChanges;
 import nl.kabisa.quotes.repository.QuotesRepository;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
@@ -19,18 +36,46 @@ import reactor.core.publisher.Mono;
 @Slf4j
 public class QuotesService {
 
-    private final DummyJsonClient dummyJsonClient;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int IMPORT_BATCH_SIZE = 1000;
+
+    private final QuoteSources quoteSources;
     private final QuotesRepository quotesRepository;
+    private final UpstreamConcurrencyLimiter upstreamLimiter;
+    private final UpstreamSampler upstreamSampler;
+    private final VoteRateLimiter voteRateLimiter;
+    private final VoteDeduplicator voteDeduplicator;
+    private final ObjectMapper objectMapper;
 
     /**
-     * Fetches a random quote from the external service and saves it to the repository. If the external service is unavailable, it falls back to a random quote from the local cache.
+     * Fetches a random quote from whichever quote source answers first and saves it to the repository. If no source answers in time, it falls back to a random quote from the local cache.
+     * When too many calls to the external service are in flight, the call is shed and a random quote from the local cache is returned instead.
+     * Once the local cache covers most of the external corpus, most quotes are served from the local cache and only a sample of the requests
+     * goes to the external service.
      *
      * @return a random quote
-     * @throws ResourceNotFoundException if no quotes are available
+     * @throws ResourceNotFoundException  if no quotes are available
+     * @throws ServiceUnavailableException if the call is shed and no quotes are cached
      */
     public Quote getRandomQuote() {
-        return dummyJsonClient.getRandomQuote()
-            .map(quotesRepository::save)
+        if (upstreamSampler.shouldServeLocally(quotesRepository.getQuoteCount())) {
+            var cachedQuote = quotesRepository.getRandomQuote();
+            if (cachedQuote.isPresent()) {
+                return cachedQuote.get();
+            }
+        }
+        if (!upstreamLimiter.tryAcquire()) {
+            return quotesRepository.getRandomQuote()
+                .orElseThrow(() -> new ServiceUnavailableException("Too many concurrent requests, try again later"));
+        }
+
+        long start = System.nanoTime();
+        return quoteSources.getRandomQuote()
+            .doFinally(signal -> upstreamLimiter.release(System.nanoTime() - start))
+            .map(quote -> {
+                upstreamSampler.record(quotesRepository.getQuoteCount(), quotesRepository.getRankedQuote(quote.id()).isPresent());
+                return quotesRepository.save(quote);
+            })
             .onErrorResume(ex -> {
                 log.warn("No quotes received form server, using local cache as fallback", ex);
                 return quotesRepository.getRandomQuote()
@@ -41,15 +86,26 @@ public class QuotesService {
     }
 
     /**
-     * Upvotes a quote by its ID.
+     * Upvotes a quote by its ID. If vote deduplication is enabled, a client can vote only once per quote per window.
      *
-     * @param id ID of the quote to upvote
+     * @param id       ID of the quote to upvote
+     * @param clientId ID of the client giving the vote
+     * @throws TooManyRequestsException  if the client exceeded its vote rate
      * @throws ResourceNotFoundException if the quote with the given ID is not found
+     * @throws DuplicateVoteException    if the client already voted for the quote
      */
-    public void upvoteQuote(Long id) {
-        quotesRepository.getRankedQuote(id)
-            .orElseThrow(() -> new ResourceNotFoundException("Quote with id " + id + " not found"))
-            .upvote();
+    public void upvoteQuote(Long id, String clientId) {
+        if (!voteRateLimiter.tryAcquire(clientId)) {
+            throw new TooManyRequestsException("Too many votes, try again later");
+        }
+        if (quotesRepository.getRankedQuote(id).isEmpty()) {
+            throw quoteNotFound(id);
+        }
+        if (!voteDeduplicator.tryRecord(clientId, id)) {
+            throw new DuplicateVoteException("Already voted for quote with id " + id);
+        }
+        quotesRepository.upvote(id)
+            .orElseThrow(() -> quoteNotFound(id));
     }
 
     /**
@@ -60,4 +116,150 @@ public class QuotesService {
     public List<RankedQuote> getRanking() {
         return quotesRepository.getRankedQuotesTop10();
     }
+
+    /**
+     * Retrieves the vote counts that changed since a version of the ranking, so clients can keep a copy of the ranking
+     * up to date without fetching it again.
+     *
+     * @param sinceVersion version of the ranking the client has, 0 for all retained changes
+     * @return changed vote counts and the new version, or a resync signal if the client is too far behind
+     */
+    public RankingChanges getRankingChanges(long sinceVersion) {
+        return quotesRepository.getRankingChangesSince(sinceVersion);
+    }
+
+    /**
+     * Retrieves the cached quotes for the given IDs. IDs that are not in the local cache are left out.
+     *
+     * @param ids IDs of the quotes
+     * @return quotes by ID, in the order of the given IDs
+     */
+    public Map<Long, Quote> getQuotes(Collection<Long> ids) {
+        return quotesRepository.getQuotes(ids);
+    }
+
+    /**
+     * Limits the IDs of a request to the first {@value #MAX_PAGE_SIZE}, the same maximum as the page size of the other
+     * lists.
+     *
+     * @param ids requested IDs
+     * @return the first IDs
+     */
+    public static List<Long> limitIds(List<Long> ids) {
+        return ids.size() > MAX_PAGE_SIZE ? ids.subList(0, MAX_PAGE_SIZE) : ids;
+    }
+
+    /**
+     * Searches the cached quotes by text and author. Results are ordered by relevance, with the number of votes as
+     * tie-breaker.
+     *
+     * @param text   terms to search for, parts between double quotes must appear as a phrase
+     * @param author author terms to filter on
+     * @param first  maximum number of results
+     * @return matching ranked quotes
+     */
+    public List<RankedQuote> search(String text, String author, int first) {
+        return quotesRepository.search(text, author, clampPageSize(first));
+    }
+
+    /**
+     * Retrieves the cached quotes of an author ordered by number of votes.
+     *
+     * @param author name of the author
+     * @param first  maximum number of quotes
+     * @return ranked quotes of the author
+     */
+    public List<RankedQuote> getQuotesByAuthor(String author, int first) {
+        return quotesRepository.getRankedQuotesByAuthor(author, clampPageSize(first));
+    }
+
+    /**
+     * Retrieves the authors with the most votes in total for their quotes.
+     *
+     * @param first maximum number of authors
+     * @return ranked authors
+     */
+    public List<RankedAuthor> getTopAuthors(int first) {
+        return quotesRepository.getTopAuthors(clampPageSize(first));
+    }
+
+    /**
+     * Writes all ranked quotes as newline-delimited JSON, streaming straight from the repository. Every record ends with a
+     * newline and the stream is only flushed when its buffer is full or the export is complete.
+     *
+     * @param outputStream stream to write to
+     * @throws IOException if writing fails
+     */
+    public void exportQuotes(OutputStream outputStream) throws IOException {
+        var writer = objectMapper.writerFor(RankedQuote.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (var generator = objectMapper.createGenerator(outputStream)) {
+            // Records are terminated by a newline instead of separated by the default space
+            generator.setRootValueSeparator(null);
+            quotesRepository.forEach(rankedQuote -> {
+                try {
+                    writer.writeValue(generator, rankedQuote);
+                    generator.writeRaw('\n');
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * Reads ranked quotes as newline-delimited JSON and merges them into the repository in batches. Quotes that already
+     * exist keep the highest of both vote counts, so importing the same state twice has no effect. Records without an ID
+     * or author are skipped. The import stops at the first record that cannot be read or has a negative vote count; the
+     * records before it are imported, so the import can be repeated once the record is corrected.
+     *
+     * @param inputStream stream to read from
+     * @return number of imported records
+     * @throws IOException             if reading fails
+     * @throws InvalidImportException if a record cannot be read or has a negative vote count
+     */
+    public long importQuotes(InputStream inputStream) throws IOException {
+        long count = 0;
+        var batch = new ArrayList<RankedQuote>(IMPORT_BATCH_SIZE);
+        // Line the record being read starts on, as reading it may fail lines further; 0 in between records
+        int recordLine = 0;
+        try (MappingIterator<RankedQuote> records = objectMapper.readerFor(RankedQuote.class).readValues(inputStream)) {
+            for (; records.hasNextValue(); recordLine = 0) {
+                recordLine = records.getParser().currentTokenLocation().getLineNr();
+                var rankedQuote = records.nextValue();
+                var quote = rankedQuote.getQuote();
+                if (quote == null || quote.id() == null || quote.author() == null) {
+                    continue;
+                }
+                if (rankedQuote.getVotes().get() < 0) {
+                    quotesRepository.merge(batch);
+                    throw new InvalidImportException("Negative vote count for quote " + quote.id(), recordLine, count);
+                }
+                batch.add(rankedQuote);
+                count++;
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    quotesRepository.merge(batch);
+                    batch.clear();
+                }
+            }
+        } catch (JsonProcessingException ex) {
+            quotesRepository.merge(batch);
+            // Between records, the error itself is where the next record starts
+            var location = ex.getLocation();
+            int line = recordLine > 0 || location == null ? recordLine : location.getLineNr();
+            throw new InvalidImportException("Malformed record: " + ex.getOriginalMessage(), line, count);
+        }
+        quotesRepository.merge(batch);
+        return count;
+    }
+
+    private static int clampPageSize(int first) {
+        return Math.clamp(first, 0, MAX_PAGE_SIZE);
+    }
+
+    private static ResourceNotFoundException quoteNotFound(Long id) {
+        return new ResourceNotFoundException("Quote with id " + id + " not found");
+    }
 }
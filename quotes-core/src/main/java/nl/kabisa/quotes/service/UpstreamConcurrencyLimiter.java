@@ -0,0 +1,81 @@
+package nl.kabisa.quotes.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adaptive limit on the number of concurrent calls to the upstream quote service.
+ * <p>
+ * The limit follows an additive-increase/multiplicative-decrease scheme: every call slower than the latency threshold
+ * lowers the limit by a fixed ratio, and every faster call raises it by one, within the configured bounds. Calls beyond
+ * the limit are shed instead of queueing up behind a slow upstream.
+ */
+@Component
+public class UpstreamConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final long latencyThresholdNanos;
+    private final int minimumLimit;
+    private final int maximumLimit;
+    private final Counter shed;
+    private volatile double limit;
+
+    public UpstreamConcurrencyLimiter(@Value("${quotes.dummy-json.concurrency.initial-limit}") int initialLimit,
+        @Value("${quotes.dummy-json.concurrency.minimum-limit}") int minimumLimit,
+        @Value("${quotes.dummy-json.concurrency.maximum-limit}") int maximumLimit,
+        @Value("${quotes.dummy-json.concurrency.latency-threshold}") Duration latencyThreshold,
+        MeterRegistry registry) {
+        this.limit = initialLimit;
+        this.minimumLimit = minimumLimit;
+        this.maximumLimit = maximumLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.shed = Counter.builder("quotes.upstream.shed")
+            .description("Number of upstream calls shed by the concurrency limit")
+            .register(registry);
+        Gauge.builder("quotes.upstream.concurrency.limit", this, limiter -> limiter.limit)
+            .description("Current limit on concurrent upstream calls")
+            .register(registry);
+        Gauge.builder("quotes.upstream.concurrency.in-flight", inFlight, AtomicInteger::get)
+            .description("Number of upstream calls in flight")
+            .register(registry);
+    }
+
+    /**
+     * Reserves a slot for an upstream call. Every successful call must be followed by {@link #release(long)}.
+     *
+     * @return true if the call may proceed, false if it is shed
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                shed.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases the slot of a finished upstream call and adapts the limit to its latency.
+     *
+     * @param latencyNanos latency of the call in nanoseconds
+     */
+    public void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            limit = latencyNanos > latencyThresholdNanos
+                ? Math.max(minimumLimit, limit * BACKOFF_RATIO)
+                : Math.min(maximumLimit, limit + 1);
+        }
+    }
+}
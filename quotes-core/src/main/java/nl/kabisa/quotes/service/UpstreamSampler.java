@@ -0,0 +1,98 @@
+package nl.kabisa.quotes.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.ThreadLocalRandom;
+import nl.kabisa.quotes.repository.QuotesFlushedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides whether a random quote can be served from the local cache instead of from the upstream quote service.
+ * <p>
+ * Upstream returns quotes uniformly at random, so the chance that an upstream quote is already cached equals the fraction
+ * of the upstream corpus that is cached. Every upstream response is recorded together with the cache size at that time,
+ * and the corpus size is estimated as the ratio of the summed cache sizes to the number of responses that were already
+ * cached, with exponential decay so the estimate follows a growing corpus. A random quote is then served locally with a
+ * probability equal to the estimated coverage, but never above {@code 1 - minimum-rate}, so a small share of requests
+ * keeps going upstream to discover new quotes. Once the cache holds the whole corpus, local quotes are drawn from the same
+ * uniform distribution as upstream ones. The estimate is discarded when the local cache is flushed, as it no longer
+ * relates to the cache contents.
+ */
+@Component
+public class UpstreamSampler {
+
+    private static final double MINIMUM_HITS = 3;
+
+    private final boolean enabled;
+    private final double maximumLocalRate;
+    private final double decay;
+    private final Counter servedLocally;
+    private double cachedSum;
+    private double hitSum;
+    private volatile double corpusSize;
+    private volatile double coverage;
+
+    public UpstreamSampler(@Value("${quotes.dummy-json.sampling.enabled}") boolean enabled,
+        @Value("${quotes.dummy-json.sampling.minimum-rate}") double minimumRate,
+        @Value("${quotes.dummy-json.sampling.window}") int window,
+        MeterRegistry registry) {
+        this.enabled = enabled;
+        this.maximumLocalRate = 1 - minimumRate;
+        this.decay = 1 - 1.0 / window;
+        this.servedLocally = Counter.builder("quotes.upstream.sampling.served-locally")
+            .description("Number of random quotes served from the local cache instead of upstream")
+            .register(registry);
+        Gauge.builder("quotes.upstream.sampling.corpus-size", this, sampler -> sampler.corpusSize)
+            .description("Estimated number of quotes in the upstream corpus, 0 while unknown")
+            .register(registry);
+        Gauge.builder("quotes.upstream.sampling.coverage", this, sampler -> sampler.coverage)
+            .description("Estimated fraction of the upstream corpus in the local cache")
+            .register(registry);
+    }
+
+    /**
+     * Decides whether the next random quote should be served from the local cache.
+     *
+     * @param cachedQuotes number of quotes in the local cache
+     * @return true to serve from the local cache, false to call upstream
+     */
+    public boolean shouldServeLocally(int cachedQuotes) {
+        if (!enabled) {
+            return false;
+        }
+
+        double estimatedCorpusSize = corpusSize;
+        coverage = estimatedCorpusSize == 0 ? 0 : Math.min(1, cachedQuotes / estimatedCorpusSize);
+        if (ThreadLocalRandom.current().nextDouble() >= Math.min(coverage, maximumLocalRate)) {
+            return false;
+        }
+        servedLocally.increment();
+        return true;
+    }
+
+    /**
+     * Records a quote received from upstream, to refine the estimated corpus size.
+     *
+     * @param cachedQuotes number of quotes in the local cache before the quote was received
+     * @param cached       whether the quote was already in the local cache
+     */
+    public synchronized void record(int cachedQuotes, boolean cached) {
+        cachedSum = cachedSum * decay + cachedQuotes;
+        hitSum = hitSum * decay + (cached ? 1 : 0);
+        corpusSize = hitSum >= MINIMUM_HITS ? cachedSum / hitSum : 0;
+    }
+
+    /**
+     * Discards the estimated corpus size, so all random quotes go upstream again until it is re-estimated.
+     */
+    @EventListener(QuotesFlushedEvent.class)
+    public synchronized void reset() {
+        cachedSum = 0;
+        hitSum = 0;
+        corpusSize = 0;
+        coverage = 0;
+    }
+}
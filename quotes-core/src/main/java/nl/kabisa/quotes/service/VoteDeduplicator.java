@@ -0,0 +1,170 @@
+package nl.kabisa.quotes.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Remembers which client voted for which quote, to allow only one vote per client per quote within a time window.
+ * <p>
+ * Instead of storing every (client, quote) pair, votes are recorded in a rotating pair of Bloom filters: votes are added
+ * to the current filter and looked up in both, and every window the current filter becomes the previous one and a new
+ * empty filter is started. A vote is therefore remembered for at least one and at most two windows. Memory is fixed up
+ * front from the expected number of votes per window and the requested false-positive rate, capped by a memory budget.
+ * <p>
+ * Looking up and recording a vote happens under a lock picked by the hash of the vote, so two identical votes arriving at
+ * the same time are serialized and only one of them is accepted, while different votes rarely contend. Both filters are
+ * swapped as a single reference, so a rotation can not make a lookup miss a recorded vote. A repeated vote is therefore
+ * always rejected within one window; a false positive may also reject a vote the client did not give before. Clients are
+ * identified as resolved by the controllers, so only known API keys get their own identity.
+ */
+@Component
+@Slf4j
+public class VoteDeduplicator {
+
+    private static final double LN2 = Math.log(2);
+    private static final int LOCK_STRIPES = 1 << 8; // picked by the top 8 bits of the hash
+
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int bits;
+    private final int hashes;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private volatile Filters filters;
+    private volatile long rotateAt;
+
+    public VoteDeduplicator(@Value("${quotes.votes.deduplication.enabled}") boolean enabled,
+        @Value("${quotes.votes.deduplication.window}") Duration window,
+        @Value("${quotes.votes.deduplication.expected-votes}") long expectedVotes,
+        @Value("${quotes.votes.deduplication.false-positive-rate}") double falsePositiveRate,
+        @Value("${quotes.votes.deduplication.maximum-memory}") DataSize maximumMemory,
+        MeterRegistry registry) {
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+
+        long requiredBits = (long) Math.ceil(-expectedVotes * Math.log(falsePositiveRate) / (LN2 * LN2));
+        long budgetBits = Math.min(maximumMemory.toBytes() / 2 * Byte.SIZE, (long) Integer.MAX_VALUE - Long.SIZE);
+        if (requiredBits > budgetBits) {
+            log.warn("Vote deduplication needs {} bits per window for a false-positive rate of {}, capped to {} bits by the memory budget",
+                requiredBits, falsePositiveRate, budgetBits);
+        }
+        this.bits = enabled ? (int) Math.max(Long.SIZE, Math.min(requiredBits, budgetBits)) : Long.SIZE;
+        this.hashes = (int) Math.max(1, Math.round((double) bits / expectedVotes * LN2));
+        this.filters = new Filters(new BloomFilter(bits), new BloomFilter(bits));
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        this.rotateAt = System.nanoTime() + windowNanos;
+
+        Gauge.builder("quotes.votes.deduplication.size", this, deduplicator -> 2L * deduplicator.bits / Byte.SIZE)
+            .description("Memory used by the vote deduplication filters")
+            .baseUnit(BaseUnits.BYTES)
+            .register(registry);
+    }
+
+    /**
+     * Records a vote of a client for a quote, unless the client already voted for it in the current window.
+     *
+     * @param clientId ID of the client
+     * @param quoteId  ID of the quote
+     * @return true if the vote is new or deduplication is disabled, false if it is (probably) a repeated vote
+     */
+    public boolean tryRecord(String clientId, Long quoteId) {
+        if (!enabled) {
+            return true;
+        }
+
+        rotateIfDue();
+        long hash1 = mix(clientHash(clientId) ^ quoteId);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+        synchronized (locks[(int) (hash1 >>> 56)]) {
+            var current = filters;
+            return !current.previous().contains(hash1, hash2) && current.current().add(hash1, hash2);
+        }
+    }
+
+    private void rotateIfDue() {
+        if (System.nanoTime() - rotateAt < 0) {
+            return;
+        }
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (now - rotateAt >= 0) {
+                var previous = now - rotateAt >= windowNanos ? new BloomFilter(bits) : filters.current();
+                filters = new Filters(new BloomFilter(bits), previous);
+                rotateAt = now + windowNanos;
+            }
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the client ID.
+     */
+    private static long clientHash(String clientId) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < clientId.length(); i++) {
+            hash = (hash ^ clientId.charAt(i)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    /**
+     * SplitMix64 finalizer, to spread the bits of a hash.
+     */
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+
+    private record Filters(BloomFilter current, BloomFilter previous) {
+
+    }
+
+    /**
+     * Lock-free Bloom filter using double hashing to derive the bit positions.
+     */
+    private final class BloomFilter {
+
+        private final AtomicLongArray words;
+
+        private BloomFilter(int bits) {
+            this.words = new AtomicLongArray((bits + Long.SIZE - 1) / Long.SIZE);
+        }
+
+        private boolean contains(long hash1, long hash2) {
+            for (int i = 0; i < hashes; i++) {
+                int bit = bit(hash1, hash2, i);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Adds an entry.
+         *
+         * @return true if at least one bit was not set yet, meaning the entry was definitely not present before
+         */
+        private boolean add(long hash1, long hash2) {
+            boolean added = false;
+            for (int i = 0; i < hashes; i++) {
+                int bit = bit(hash1, hash2, i);
+                long mask = 1L << bit;
+                added |= (words.getAndAccumulate(bit >>> 6, mask, (word, m) -> word | m) & mask) == 0;
+            }
+            return added;
+        }
+
+        private int bit(long hash1, long hash2, int i) {
+            return (int) Long.remainderUnsigned(hash1 + i * hash2, bits);
+        }
+    }
+}
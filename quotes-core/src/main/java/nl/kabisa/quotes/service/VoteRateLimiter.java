@@ -0,0 +1,82 @@
+package nl.kabisa.quotes.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-client token bucket rate limiter for votes.
+ * <p>
+ * Buckets are kept in a size-bounded cache, so memory stays fixed no matter how many clients vote: when the cache is full
+ * the least valuable buckets are evicted, and buckets of idle clients expire once they would have been refilled anyway.
+ * Taking a token is lock-free.
+ */
+@Component
+public class VoteRateLimiter {
+
+    private final Cache<String, TokenBucket> buckets;
+    private final long capacity;
+    private final long nanosPerToken;
+    private final Counter throttled;
+
+    public VoteRateLimiter(@Value("${quotes.votes.rate-limit.capacity}") long capacity,
+        @Value("${quotes.votes.rate-limit.refill-per-second}") long refillPerSecond,
+        @Value("${quotes.votes.rate-limit.maximum-clients}") long maximumClients,
+        MeterRegistry registry) {
+        this.capacity = capacity;
+        this.nanosPerToken = TimeUnit.SECONDS.toNanos(1) / refillPerSecond;
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(maximumClients)
+            .expireAfterAccess(Duration.ofNanos(nanosPerToken * capacity))
+            .build();
+        this.throttled = Counter.builder("quotes.votes.throttled")
+            .description("Number of votes rejected by the per-client rate limit")
+            .register(registry);
+    }
+
+    /**
+     * Takes a token from the bucket of the client.
+     *
+     * @param clientId ID of the client
+     * @return true if the client is allowed to vote, false if it exceeded its rate
+     */
+    public boolean tryAcquire(String clientId) {
+        var acquired = buckets.get(clientId, key -> new TokenBucket(System.nanoTime())).tryAcquire(System.nanoTime());
+        if (!acquired) {
+            throttled.increment();
+        }
+        return acquired;
+    }
+
+    /**
+     * Token bucket stored as a single timestamp: the moment the bucket would be empty. A full bucket is at
+     * {@code now - capacity * nanosPerToken}, and taking a token moves the timestamp one token interval forward.
+     */
+    private final class TokenBucket {
+
+        private final AtomicLong emptyAt;
+
+        private TokenBucket(long now) {
+            this.emptyAt = new AtomicLong(now - capacity * nanosPerToken);
+        }
+
+        private boolean tryAcquire(long now) {
+            while (true) {
+                long current = emptyAt.get();
+                long next = Math.max(current, now - capacity * nanosPerToken) + nanosPerToken;
+                if (next > now) {
+                    return false;
+                }
+                if (emptyAt.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
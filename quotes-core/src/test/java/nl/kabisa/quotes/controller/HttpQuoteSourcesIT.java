@@ -0,0 +1,169 @@
+package nl.kabisa.quotes.controller;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import nl.kabisa.quotes.client.QuoteSources;
+import nl.kabisa.quotes.model.Quote;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.wiremock.spring.ConfigureWireMock;
+import org.wiremock.spring.EnableWireMock;
+import org.wiremock.spring.InjectWireMock;
+
+@SpringBootTest(properties = {
+    "quotes.dummy-json.url=http://localhost:${wiremock.server.port}/quotes",
+    "quotes.sources.file.location=classpath:quotes/corpus.json",
+    "quotes.sources.remote-share=0.5",
+    "quotes.sources.http[0].name=fast",
+    "quotes.sources.http[0].url=${fast.url}/quote",
+    "quotes.sources.http[0].namespace=2",
+    "quotes.sources.http[0].fields.id=/data/uid",
+    "quotes.sources.http[0].fields.quote=/data/text",
+    "quotes.sources.http[0].fields.author=/data/by",
+    "quotes.sources.http[1].name=slow",
+    "quotes.sources.http[1].url=${slow.url}/random",
+    "quotes.sources.http[1].namespace=3"
+})
+@EnableWireMock({
+    @ConfigureWireMock(name = "dummy-json"),
+    @ConfigureWireMock(name = "fast", portProperties = "fast.port", baseUrlProperties = "fast.url"),
+    @ConfigureWireMock(name = "slow", portProperties = "slow.port", baseUrlProperties = "slow.url")
+})
+class HttpQuoteSourcesIT {
+
+    private static final Quote FILE_QUOTE = new Quote(1L << 48 | 1, "Simplicity is prerequisite for reliability.",
+        "Edsger W. Dijkstra");
+
+    @InjectWireMock("dummy-json")
+    WireMockServer dummyJson;
+
+    @InjectWireMock("fast")
+    WireMockServer fast;
+
+    @InjectWireMock("slow")
+    WireMockServer slow;
+
+    @Autowired
+    private QuoteSources quoteSources;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup() {
+        dummyJson.resetAll();
+        fast.resetAll();
+        slow.resetAll();
+        dummyJson.stubFor(WireMock.get("/quotes/random").willReturn(WireMock.serviceUnavailable()));
+    }
+
+    @DisplayName("""
+        GIVEN a file quote source
+        AND a fast HTTP quote source with its own response shape
+        AND a slow HTTP quote source
+        AND half of the requests querying remote sources first
+        WHEN two random quotes are requested
+        THEN the quote of the file source and the mapped quote of the fast source are returned
+        AND the request to the slow source is cancelled once the fast source answered
+        """)
+    @Test
+    void fastestHttpSourceWinsAndSlowRequestIsCancelled() {
+        // GIVEN a file quote source
+        // AND a fast HTTP quote source with its own response shape
+        fast.stubFor(WireMock.get("/quote").willReturn(WireMock.okJson("""
+            {
+              "data": {
+                "uid": 7,
+                "text": "Talk is cheap. Show me the code.",
+                "by": "Linus Torvalds"
+              }
+            }
+            """)));
+
+        // AND a slow HTTP quote source
+        slow.stubFor(WireMock.get("/random").willReturn(WireMock.okJson("""
+            {
+              "id": 1,
+              "quote": "If you want to lift yourself up, lift up someone else.",
+              "author": "Booker T. Washington"
+            }
+            """).withFixedDelay(1500)));
+        double cancelled = requests("slow", "cancelled");
+
+        // AND half of the requests querying remote sources first
+        // WHEN two random quotes are requested
+        long start = System.nanoTime();
+        var first = quoteSources.getRandomQuote().block();
+        var second = quoteSources.getRandomQuote().block();
+
+        // THEN the quote of the file source and the mapped quote of the fast source are returned
+        assertThat(new Quote[] {first, second}).containsExactlyInAnyOrder(FILE_QUOTE,
+            new Quote(2L << 48 | 7, "Talk is cheap. Show me the code.", "Linus Torvalds"));
+
+        // AND the request to the slow source is cancelled once the fast source answered
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1500));
+        assertThat(slow.findAll(getRequestedFor(urlEqualTo("/random")))).hasSize(1);
+        assertThat(requests("slow", "cancelled")).isEqualTo(cancelled + 1);
+    }
+
+    @DisplayName("""
+        GIVEN a file quote source
+        AND a fast HTTP quote source whose response has no author
+        AND a slower HTTP quote source
+        AND half of the requests querying remote sources first
+        WHEN two random quotes are requested
+        THEN the quote of the file source and the quote of the slower source are returned
+        AND the request to the fast source is counted as failed
+        """)
+    @Test
+    void httpSourceResponseWithoutAuthorIsSkipped() {
+        // GIVEN a file quote source
+        // AND a fast HTTP quote source whose response has no author
+        fast.stubFor(WireMock.get("/quote").willReturn(WireMock.okJson("""
+            {
+              "data": {
+                "uid": 7,
+                "text": "Talk is cheap. Show me the code."
+              }
+            }
+            """)));
+
+        // AND a slower HTTP quote source
+        slow.stubFor(WireMock.get("/random").willReturn(WireMock.okJson("""
+            {
+              "id": 1,
+              "quote": "If you want to lift yourself up, lift up someone else.",
+              "author": "Booker T. Washington"
+            }
+            """).withFixedDelay(100)));
+        double failed = requests("fast", "failed");
+
+        // AND half of the requests querying remote sources first
+        // WHEN two random quotes are requested
+        var first = quoteSources.getRandomQuote().block();
+        var second = quoteSources.getRandomQuote().block();
+
+        // THEN the quote of the file source and the quote of the slower source are returned
+        assertThat(new Quote[] {first, second}).containsExactlyInAnyOrder(FILE_QUOTE,
+            new Quote(3L << 48 | 1, "If you want to lift yourself up, lift up someone else.", "Booker T. Washington"));
+
+        // AND the request to the fast source is counted as failed
+        assertThat(requests("fast", "failed")).isEqualTo(failed + 1);
+    }
+
+    private double requests(String source, String outcome) {
+        return meterRegistry.get("quotes.sources.requests")
+            .tags("source", source, "outcome", outcome)
+            .counter()
+            .count();
+    }
+}
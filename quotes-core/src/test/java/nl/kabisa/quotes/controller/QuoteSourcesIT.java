@@ -0,0 +1,153 @@
+package nl.kabisa.quotes.controller;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import java.nio.charset.StandardCharsets;
+import nl.kabisa.quotes.client.FileQuoteSource;
+import nl.kabisa.quotes.model.Quote;
+import nl.kabisa.quotes.repository.QuotesRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.wiremock.spring.ConfigureWireMock;
+import org.wiremock.spring.EnableWireMock;
+import org.wiremock.spring.InjectWireMock;
+
+@SpringBootTest(properties = {
+    "quotes.dummy-json.url=http://localhost:${wiremock.server.port}/quotes",
+    "quotes.sources.file.location=classpath:quotes/corpus.json",
+    "quotes.sources.remote-share=0"
+})
+@EnableWireMock({
+    @ConfigureWireMock(name = "dummy-json")
+})
+@AutoConfigureMockMvc
+class QuoteSourcesIT {
+
+    @InjectWireMock("dummy-json")
+    WireMockServer wireMock;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private QuotesRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setup() {
+        wireMock.resetAll();
+        repository.flush();
+    }
+
+    @DisplayName("""
+        GIVEN a slow response from Dummy JSON
+        AND a file quote source
+        WHEN a random quote is requested
+        THEN the quote of the file source is returned with an ID in the namespace of that source
+        AND the quote can be voted for by that ID
+        """)
+    @Test
+    void fastestSourceWinsWithNamespacedId() throws Exception {
+        // GIVEN a slow response from Dummy JSON
+        wireMock.stubFor(WireMock.get("/quotes/random").willReturn(WireMock.okJson("""
+            {
+              "id": 1,
+              "quote": "If you want to lift yourself up, lift up someone else.",
+              "author": "Booker T. Washington"
+            }
+            """).withFixedDelay(1000)));
+
+        // AND a file quote source
+        // WHEN a random quote is requested
+        // THEN the quote of the file source is returned with an ID in the namespace of that source
+        long namespacedId = 1L << 48 | 1;
+        this.mockMvc.perform(get("/api/rest/quotes/random"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(namespacedId))
+            .andExpect(jsonPath("$.author").value("Edsger W. Dijkstra"));
+
+        // AND the quote can be voted for by that ID
+        this.mockMvc.perform(post("/api/rest/quotes/vote/{id}", namespacedId))
+            .andExpect(status().isOk());
+        this.mockMvc.perform(get("/api/rest/quotes/ranking"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].quote.id").value(namespacedId))
+            .andExpect(jsonPath("$[0].votes").value(1));
+    }
+
+    @DisplayName("""
+        GIVEN a response from Dummy JSON
+        AND a file quote source
+        AND no share of the requests that queries remote sources first
+        WHEN random quotes are requested
+        THEN the quotes of the file source are returned
+        AND Dummy JSON is not called, as the file source answers within the hedge delay
+        """)
+    @Test
+    void remoteSourceIsNotCalledWhenLocalSourceAnswersWithoutRemoteShare() throws Exception {
+        // GIVEN a response from Dummy JSON
+        wireMock.stubFor(WireMock.get("/quotes/random").willReturn(WireMock.okJson("""
+            {
+              "id": 1,
+              "quote": "If you want to lift yourself up, lift up someone else.",
+              "author": "Booker T. Washington"
+            }
+            """)));
+
+        // AND a file quote source
+        // AND no share of the requests that queries remote sources first
+        // WHEN random quotes are requested
+        // THEN the quotes of the file source are returned
+        for (int i = 0; i < 10; i++) {
+            this.mockMvc.perform(get("/api/rest/quotes/random"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.author").value("Edsger W. Dijkstra"));
+        }
+
+        // AND Dummy JSON is not called, as the file source answers within the hedge delay
+        assertThat(wireMock.findAll(getRequestedFor(urlEqualTo("/quotes/random")))).isEmpty();
+    }
+
+    @DisplayName("""
+        GIVEN a file with a complete quote and quotes without an ID or author
+        WHEN random quotes are taken from a file quote source reading that file
+        THEN only the complete quote is returned
+        """)
+    @Test
+    void fileSourceSkipsQuotesWithoutIdOrAuthor() throws Exception {
+        // GIVEN a file with a complete quote and quotes without an ID or author
+        var file = new ByteArrayResource("""
+            [
+              {"id": 1, "quote": "Simplicity is prerequisite for reliability.", "author": "Edsger W. Dijkstra"},
+              {"quote": "A quote without an ID.", "author": "Anonymous"},
+              {"id": 3, "quote": "A quote without an author."}
+            ]
+            """.getBytes(StandardCharsets.UTF_8));
+
+        // WHEN random quotes are taken from a file quote source reading that file
+        var source = new FileQuoteSource(file, 1, objectMapper);
+
+        // THEN only the complete quote is returned
+        for (int i = 0; i < 10; i++) {
+            assertThat(source.getRandomQuote().block())
+                .isEqualTo(new Quote(1L, "Simplicity is prerequisite for reliability.", "Edsger W. Dijkstra"));
+        }
+    }
+}
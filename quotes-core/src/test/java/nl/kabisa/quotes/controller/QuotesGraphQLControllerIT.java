@@ -4,10 +4,18 @@ import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.notFound;
 import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static graphql.execution.preparsed.persisted.PersistedQuerySupport.PERSISTED_QUERY_MARKER;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import nl.kabisa.quotes.model.Quote;
 import nl.kabisa.quotes.repository.QuotesRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -245,4 +253,287 @@ class QuotesGraphQLControllerIT {
             .path("ranking[2].votes").entity(Integer.class).isEqualTo(1);
     }
 
+    @DisplayName("""
+        GIVEN multiple quotes are present in the local cache
+        WHEN quotes are requested by their IDs
+        THEN expect the known quotes to be returned in the requested order
+        """)
+    @Test
+    void quotesAreReturnedByIds() {
+        // GIVEN multiple quotes are present in the local cache
+        var quote1 = repository.save(new Quote(1L, "Test quote 1", "Author 1"));
+        var quote2 = repository.save(new Quote(2L, "Test quote 2", "Author 2"));
+
+        // WHEN quotes are requested by their IDs
+        // THEN expect the known quotes to be returned in the requested order
+        graphQlTester.document("""
+                {
+                  first: quote(id: "2") {
+                    id
+                  }
+                  missing: quote(id: "999") {
+                    id
+                  }
+                  quotes(ids: ["2", "999", "1"]) {
+                    id
+                    quote
+                    author
+                  }
+                }
+                """)
+            .execute()
+            .path("first.id").entity(Long.class).isEqualTo(quote2.id())
+            .path("missing").valueIsNull()
+            .path("quotes").entityList(Object.class).hasSize(2)
+            .path("quotes[0].id").entity(Long.class).isEqualTo(quote2.id())
+            .path("quotes[1].id").entity(Long.class).isEqualTo(quote1.id())
+            .path("quotes[1].quote").entity(String.class).isEqualTo("Test quote 1")
+            .path("quotes[1].author").entity(String.class).isEqualTo("Author 1");
+    }
+
+    @DisplayName("""
+        GIVEN 150 quotes are present in the local cache
+        WHEN all of them are requested by their IDs
+        THEN expect only the first 100 to be returned
+        WHEN 250 quotes are requested by their IDs
+        THEN expect it to be rejected for exceeding the maximum query cost, as the cost grows with the number of IDs
+        """)
+    @Test
+    void quotesByIdsAreLimited() {
+        // GIVEN 150 quotes are present in the local cache
+        for (long i = 1; i <= 150; i++) {
+            repository.save(new Quote(i, "Test quote " + i, "Author " + i));
+        }
+        var document = "query($ids: [ID!]!) { quotes(ids: $ids) { id } }";
+
+        // WHEN all of them are requested by their IDs
+        // THEN expect only the first 100 to be returned
+        graphQlTester.document(document)
+            .variable("ids", LongStream.rangeClosed(1, 150).boxed().toList())
+            .execute()
+            .path("quotes").entityList(Object.class).hasSize(100)
+            .path("quotes[99].id").entity(Long.class).isEqualTo(100L);
+
+        // WHEN 250 quotes are requested by their IDs
+        // THEN expect it to be rejected for exceeding the maximum query cost, as the cost grows with the number of IDs
+        graphQlTester.document(document)
+            .variable("ids", LongStream.rangeClosed(1, 250).boxed().toList())
+            .execute()
+            .errors()
+            .satisfy(errors -> assertThat(errors)
+                .hasSize(1)
+                .anyMatch(error -> error.getMessage().contains("maximum query complexity exceeded"))
+            );
+    }
+
+    @DisplayName("""
+        GIVEN a quote is present in the local cache
+        WHEN a persisted query is requested by its hash before it is registered
+        THEN expect a persisted query not found error
+        WHEN the persisted query is registered with its document
+        THEN expect the same hash to be usable without sending the document
+        """)
+    @Test
+    void persistedQueryIsResolvedByHash() throws Exception {
+        // GIVEN a quote is present in the local cache
+        var quote = repository.save(new Quote(1L, "Test quote 1", "Author 1"));
+        var document = "query($id: ID!) { quote(id: $id) { id author } }";
+        var hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(document.getBytes(UTF_8)));
+        var persistedQuery = Map.of("version", 1, "sha256Hash", hash);
+
+        // WHEN a persisted query is requested by its hash before it is registered
+        // THEN expect a persisted query not found error
+        graphQlTester.document(PERSISTED_QUERY_MARKER)
+            .variable("id", quote.id())
+            .extension("persistedQuery", persistedQuery)
+            .execute()
+            .errors()
+            .satisfy(errors -> assertThat(errors)
+                .hasSize(1)
+                .anyMatch(error -> error.getMessage().contains("PersistedQueryNotFound"))
+            );
+
+        // WHEN the persisted query is registered with its document
+        graphQlTester.document(document)
+            .variable("id", quote.id())
+            .extension("persistedQuery", persistedQuery)
+            .execute()
+            .path("quote.author").entity(String.class).isEqualTo("Author 1");
+
+        // THEN expect the same hash to be usable without sending the document
+        graphQlTester.document(PERSISTED_QUERY_MARKER)
+            .variable("id", quote.id())
+            .extension("persistedQuery", persistedQuery)
+            .execute()
+            .path("quote.id").entity(Long.class).isEqualTo(quote.id())
+            .path("quote.author").entity(String.class).isEqualTo("Author 1");
+    }
+
+    @DisplayName("""
+        GIVEN a document selecting the ranking many times under different aliases
+        WHEN the document is executed
+        THEN expect it to be rejected for exceeding the maximum query cost
+        """)
+    @Test
+    void documentExceedingMaximumCostIsRejected() {
+        // GIVEN a document selecting the ranking many times under different aliases
+        var document = IntStream.range(0, 20)
+            .mapToObj(i -> "r" + i + ": ranking { quote { id quote author } votes }")
+            .collect(Collectors.joining("\n", "{\n", "\n}"));
+
+        // WHEN the document is executed
+        // THEN expect it to be rejected for exceeding the maximum query cost
+        graphQlTester.document(document)
+            .execute()
+            .errors()
+            .satisfy(errors -> assertThat(errors)
+                .hasSize(1)
+                .anyMatch(error -> error.getMessage().contains("maximum query complexity exceeded"))
+            );
+    }
+
+    @DisplayName("""
+        GIVEN multiple quotes are present in the local cache
+        WHEN quotes are searched by a phrase
+        THEN expect only the quotes containing the phrase to be returned
+        """)
+    @Test
+    void searchMatchesPhrases() {
+        // GIVEN multiple quotes are present in the local cache
+        var quote1 = repository.save(new Quote(1L, "The best way out is always through.", "Robert Frost"));
+        repository.save(new Quote(2L, "Through the way of the best.", "Author 2"));
+
+        // WHEN quotes are searched by a phrase
+        // THEN expect only the quotes containing the phrase to be returned
+        graphQlTester.document("""
+                {
+                  search(text: "\\"best way\\"") {
+                    quote {
+                      id
+                      author
+                    }
+                    votes
+                  }
+                }
+                """)
+            .execute()
+            .path("search").entityList(Object.class).hasSize(1)
+            .path("search[0].quote.id").entity(Long.class).isEqualTo(quote1.id())
+            .path("search[0].quote.author").entity(String.class).isEqualTo("Robert Frost");
+    }
+
+    @DisplayName("""
+        GIVEN multiple quotes of multiple authors are present in the local cache
+        AND votes have been given to some of the quotes
+        WHEN the top authors and the quotes of an author are requested
+        THEN expect the authors ordered by total votes and the quotes of the author ordered by votes
+        """)
+    @Test
+    void authorsAreRankedByTotalVotes() {
+        // GIVEN multiple quotes of multiple authors are present in the local cache
+        var quote1 = repository.save(new Quote(1L, "Test quote 1", "Author 1"));
+        var quote2 = repository.save(new Quote(2L, "Test quote 2", "Author 2"));
+        var quote3 = repository.save(new Quote(3L, "Test quote 3", "Author 2"));
+
+        // AND votes have been given to some of the quotes
+        graphQlTester.document("mutation($id: ID!) { vote(id: $id) }").variable("id", quote1.id()).execute();
+        graphQlTester.document("mutation($id: ID!) { vote(id: $id) }").variable("id", quote2.id()).execute();
+        graphQlTester.document("mutation($id: ID!) { vote(id: $id) }").variable("id", quote3.id()).execute();
+        graphQlTester.document("mutation($id: ID!) { vote(id: $id) }").variable("id", quote3.id()).execute();
+
+        // WHEN the top authors and the quotes of an author are requested
+        // THEN expect the authors ordered by total votes and the quotes of the author ordered by votes
+        graphQlTester.document("""
+                {
+                  topAuthors {
+                    author
+                    votes
+                  }
+                  quotesByAuthor(author: "Author 2") {
+                    quote {
+                      id
+                    }
+                    votes
+                  }
+                }
+                """)
+            .execute()
+            .path("topAuthors").entityList(Object.class).hasSize(2)
+            .path("topAuthors[0].author").entity(String.class).isEqualTo("Author 2")
+            .path("topAuthors[0].votes").entity(Integer.class).isEqualTo(3)
+            .path("topAuthors[1].author").entity(String.class).isEqualTo("Author 1")
+            .path("topAuthors[1].votes").entity(Integer.class).isEqualTo(1)
+            .path("quotesByAuthor").entityList(Object.class).hasSize(2)
+            .path("quotesByAuthor[0].quote.id").entity(Long.class).isEqualTo(quote3.id())
+            .path("quotesByAuthor[1].quote.id").entity(Long.class).isEqualTo(quote2.id());
+    }
+
+    @DisplayName("""
+        GIVEN quotes are present in the local cache
+        WHEN the top authors and the quotes of an author are requested with a negative page size
+        THEN expect empty results
+        """)
+    @Test
+    void negativePageSizeReturnsEmptyResult() {
+        // GIVEN quotes are present in the local cache
+        repository.save(new Quote(1L, "Test quote 1", "Author 1"));
+
+        // WHEN the top authors and the quotes of an author are requested with a negative page size
+        // THEN expect empty results
+        graphQlTester.document("""
+                {
+                  topAuthors(first: -1) {
+                    author
+                  }
+                  quotesByAuthor(author: "Author 1", first: -1) {
+                    votes
+                  }
+                }
+                """)
+            .execute()
+            .path("topAuthors").entityList(Object.class).hasSize(0)
+            .path("quotesByAuthor").entityList(Object.class).hasSize(0);
+    }
+
+    @DisplayName("""
+        GIVEN quotes are present in the local cache
+        AND a client has the ranking at some version
+        WHEN votes are given and the ranking changes since that version are requested
+        THEN expect only the latest vote counts of the changed quotes and the new version
+        """)
+    @Test
+    void rankingChangesContainOnlyChangedQuotes() {
+        // GIVEN quotes are present in the local cache
+        var quote1 = repository.save(new Quote(1L, "Test quote 1", "Author 1"));
+        repository.save(new Quote(2L, "Test quote 2", "Author 2"));
+
+        // AND a client has the ranking at some version
+        long version = repository.getRankingChangesSince(0).version();
+
+        // WHEN votes are given and the ranking changes since that version are requested
+        graphQlTester.document("mutation($id: ID!) { vote(id: $id) }").variable("id", quote1.id()).execute();
+        graphQlTester.document("mutation($id: ID!) { vote(id: $id) }").variable("id", quote1.id()).execute();
+
+        // THEN expect only the latest vote counts of the changed quotes and the new version
+        graphQlTester.document("""
+                query($since: ID!) {
+                  rankingChanges(sinceVersion: $since) {
+                    version
+                    resyncRequired
+                    changes {
+                      quoteId
+                      votes
+                    }
+                  }
+                }
+                """)
+            .variable("since", version)
+            .execute()
+            .path("rankingChanges.version").entity(Long.class).isEqualTo(version + 2)
+            .path("rankingChanges.resyncRequired").entity(Boolean.class).isEqualTo(false)
+            .path("rankingChanges.changes").entityList(Object.class).hasSize(1)
+            .path("rankingChanges.changes[0].quoteId").entity(Long.class).isEqualTo(quote1.id())
+            .path("rankingChanges.changes[0].votes").entity(Integer.class).isEqualTo(2);
+    }
+
 }
@@ -5,13 +5,21 @@ import static com.github.tomakehurst.wiremock.client.WireMock.notFound;
 import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.stream.LongStream;
 import nl.kabisa.quotes.model.Quote;
 import nl.kabisa.quotes.repository.QuotesRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -115,6 +123,82 @@ class QuotesRestControllerIT {
             .andExpect(jsonPath("$.author").value("Author 1"));
     }
 
+    @DisplayName("""
+        GIVEN Dummy JSON has a corpus of a single quote
+        WHEN random quotes are requested repeatedly
+        THEN that quote is returned every time
+        AND most quotes are served from the local cache once it covers the corpus
+        """)
+    @Test
+    void randomQuotesAreServedLocallyOnceCacheCoversCorpus() throws Exception {
+        // GIVEN Dummy JSON has a corpus of a single quote
+        wireMock.stubFor(WireMock.get("/quotes/random").willReturn(okJson("""
+            {
+              "id": 3,
+              "quote": "If you want to lift yourself up, lift up someone else.",
+              "author": "Booker T. Washington"
+            }
+            """)));
+
+        // WHEN random quotes are requested repeatedly
+        // THEN that quote is returned every time
+        for (int i = 0; i < 100; i++) {
+            this.mockMvc.perform(get("/api/rest/quotes/random"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(3L));
+        }
+
+        // AND most quotes are served from the local cache once it covers the corpus
+        assertThat(wireMock.findAll(getRequestedFor(urlEqualTo("/quotes/random")))).hasSizeLessThan(20);
+    }
+
+    @DisplayName("""
+        GIVEN the local cache covered the corpus of Dummy JSON
+        AND the local cache is flushed
+        AND Dummy JSON has a corpus of another single quote
+        WHEN random quotes are requested
+        THEN that quote is returned every time
+        AND the quotes are requested from Dummy JSON until the corpus is estimated again
+        """)
+    @Test
+    void randomQuotesGoUpstreamAgainAfterFlush() throws Exception {
+        // GIVEN the local cache covered the corpus of Dummy JSON
+        wireMock.stubFor(WireMock.get("/quotes/random").willReturn(okJson("""
+            {
+              "id": 3,
+              "quote": "If you want to lift yourself up, lift up someone else.",
+              "author": "Booker T. Washington"
+            }
+            """)));
+        for (int i = 0; i < 10; i++) {
+            this.mockMvc.perform(get("/api/rest/quotes/random")).andExpect(status().isOk());
+        }
+
+        // AND the local cache is flushed
+        repository.flush();
+
+        // AND Dummy JSON has a corpus of another single quote
+        wireMock.resetAll();
+        wireMock.stubFor(WireMock.get("/quotes/random").willReturn(okJson("""
+            {
+              "id": 4,
+              "quote": "Simplicity is prerequisite for reliability.",
+              "author": "Edsger W. Dijkstra"
+            }
+            """)));
+
+        // WHEN random quotes are requested
+        // THEN that quote is returned every time
+        for (int i = 0; i < 4; i++) {
+            this.mockMvc.perform(get("/api/rest/quotes/random"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(4L));
+        }
+
+        // AND the quotes are requested from Dummy JSON until the corpus is estimated again
+        assertThat(wireMock.findAll(getRequestedFor(urlEqualTo("/quotes/random")))).hasSize(4);
+    }
+
     @DisplayName("""
         GIVEN a quote is present in the local cache
         WHEN a vote is given for that quote
@@ -153,6 +237,35 @@ class QuotesRestControllerIT {
             .andExpect(status().isNotFound());
     }
 
+    @DisplayName("""
+        GIVEN Dummy JSON responds with a quote without an author
+        WHEN a random quote is requested
+        THEN expect a 404 response status, as no quote is available
+        AND expect the quote not to be stored, so that voting for it returns a 404 response status
+        """)
+    @Test
+    void quoteWithoutAuthorIsNotStored() throws Exception {
+        // GIVEN Dummy JSON responds with a quote without an author
+        wireMock.stubFor(WireMock.get("/quotes/random").willReturn(okJson("""
+            {
+              "id": 1,
+              "quote": "Test quote 1"
+            }
+            """)));
+
+        // WHEN a random quote is requested
+        // THEN expect a 404 response status, as no quote is available
+        this.mockMvc.perform(get("/api/rest/quotes/random"))
+            .andExpect(status().isNotFound());
+
+        // AND expect the quote not to be stored, so that voting for it returns a 404 response status
+        assertThatThrownBy(() -> repository.save(new Quote(1L, "Test quote 1", null)))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(repository.getQuoteCount()).isZero();
+        this.mockMvc.perform(post("/api/rest/quotes/vote/{id}", 1L))
+            .andExpect(status().isNotFound());
+    }
+
     @DisplayName("""
         GIVEN multiple quotes are present in the local cache
         AND votes have been given to some of the quotes
@@ -193,4 +306,417 @@ class QuotesRestControllerIT {
             .andExpect(jsonPath("$[2].quote.id").value(quote1.id()))
             .andExpect(jsonPath("$[2].votes").value(1));
     }
+
+    @DisplayName("""
+        GIVEN multiple quotes are present in the local cache
+        WHEN quotes are requested by their IDs
+        THEN expect the known quotes to be returned in the requested order
+        """)
+    @Test
+    void quotesAreReturnedByIds() throws Exception {
+        // GIVEN multiple quotes are present in the local cache
+        var quote1 = repository.save(new Quote(1L, "Test quote 1", "Author 1"));
+        var quote2 = repository.save(new Quote(2L, "Test quote 2", "Author 2"));
+
+        // WHEN quotes are requested by their IDs
+        // THEN expect the known quotes to be returned in the requested order
+        this.mockMvc.perform(get("/api/rest/quotes").param("ids", "2", "999", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].id").value(quote2.id()))
+            .andExpect(jsonPath("$[1].id").value(quote1.id()))
+            .andExpect(jsonPath("$[1].quote").value("Test quote 1"))
+            .andExpect(jsonPath("$[1].author").value("Author 1"));
+    }
+
+    @DisplayName("""
+        GIVEN 150 quotes are present in the local cache
+        WHEN all of them are requested by their IDs
+        THEN expect only the first 100 to be returned
+        """)
+    @Test
+    void quotesByIdsAreLimited() throws Exception {
+        // GIVEN 150 quotes are present in the local cache
+        for (long i = 1; i <= 150; i++) {
+            repository.save(new Quote(i, "Test quote " + i, "Author " + i));
+        }
+
+        // WHEN all of them are requested by their IDs
+        // THEN expect only the first 100 to be returned
+        var ids = LongStream.rangeClosed(1, 150).mapToObj(String::valueOf).toArray(String[]::new);
+        this.mockMvc.perform(get("/api/rest/quotes").param("ids", ids))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(100))
+            .andExpect(jsonPath("$[99].id").value(100));
+    }
+
+    @DisplayName("""
+        GIVEN multiple quotes are present in the local cache
+        AND votes have been given to some of the quotes
+        WHEN quotes are searched by text and author
+        THEN expect the matching quotes ordered by relevance and number of votes
+        """)
+    @Test
+    void searchReturnsMatchingQuotesByRelevance() throws Exception {
+        // GIVEN multiple quotes are present in the local cache
+        var quote1 = repository.save(new Quote(1L, "Life is what happens while you make other plans.", "John Lennon"));
+        var quote2 = repository.save(new Quote(2L, "Life is short, and life is sweet.", "Anonymous"));
+        var quote3 = repository.save(new Quote(3L, "In three words: life goes on.", "Robert Frost"));
+        repository.save(new Quote(4L, "Plans are nothing; planning is everything.", "Dwight D. Eisenhower"));
+
+        // AND votes have been given to some of the quotes
+        this.mockMvc.perform(post("/api/rest/quotes/vote/{id}", quote3.id())).andExpect(status().isOk());
+
+        // WHEN quotes are searched by text and author
+        // THEN expect the matching quotes ordered by relevance and number of votes
+        this.mockMvc.perform(get("/api/rest/quotes/search").param("text", "LIFE"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(3))
+            .andExpect(jsonPath("$[0].quote.id").value(quote2.id()))
+            .andExpect(jsonPath("$[1].quote.id").value(quote3.id()))
+            .andExpect(jsonPath("$[1].votes").value(1))
+            .andExpect(jsonPath("$[2].quote.id").value(quote1.id()));
+
+        this.mockMvc.perform(get("/api/rest/quotes/search").param("text", "\"life is\"").param("first", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].quote.id").value(quote2.id()));
+
+        this.mockMvc.perform(get("/api/rest/quotes/search").param("text", "plans").param("author", "lennon"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].quote.id").value(quote1.id()));
+    }
+
+    @DisplayName("""
+        GIVEN a thousand equally relevant quotes are present in the local cache
+        AND quotes far apart have been searched and then voted for
+        WHEN the quotes are searched again
+        THEN expect the voted quotes first
+        """)
+    @Test
+    void searchRanksVotedQuotesFirstAmongEquallyRelevantQuotes() throws Exception {
+        // GIVEN a thousand equally relevant quotes are present in the local cache
+        for (long i = 1; i <= 1000; i++) {
+            repository.save(new Quote(i, "Test quote " + i, "Author " + i));
+        }
+
+        // AND quotes far apart have been searched and then voted for
+        this.mockMvc.perform(get("/api/rest/quotes/search").param("text", "quote").param("first", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].votes").value(0));
+        this.mockMvc.perform(post("/api/rest/quotes/vote/{id}", 900)).andExpect(status().isOk());
+        this.mockMvc.perform(post("/api/rest/quotes/vote/{id}", 900)).andExpect(status().isOk());
+        this.mockMvc.perform(post("/api/rest/quotes/vote/{id}", 500)).andExpect(status().isOk());
+
+        // WHEN the quotes are searched again
+        // THEN expect the voted quotes first
+        this.mockMvc.perform(get("/api/rest/quotes/search").param("text", "quote").param("first", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].quote.id").value(900))
+            .andExpect(jsonPath("$[0].votes").value(2))
+            .andExpect(jsonPath("$[1].quote.id").value(500))
+            .andExpect(jsonPath("$[1].votes").value(1));
+    }
+
+    @DisplayName("""
+        GIVEN multiple quotes of multiple authors are present in the local cache
+        AND votes have been given to some of the quotes
+        WHEN the top authors and the quotes of an author are requested
+        THEN expect the authors ordered by total votes and the quotes of the author ordered by votes
+        """)
+    @Test
+    void authorsAreRankedByTotalVotes() throws Exception {
+        // GIVEN multiple quotes of multiple authors are present in the local cache
+        var quote1 = repository.save(new Quote(1L, "Test quote 1", "Author 1"));
+        var quote2 = repository.save(new Quote(2L, "Test quote 2", "Author 1"));
+        var quote3 = repository.save(new Quote(3L, "Test quote 3", "Author 2"));
+        repository.save(new Quote(4L, "Test quote 4", "Author 3"));
+
+        // AND votes have been given to some of the quotes
+        this.mockMvc.perform(post("/api/rest/quotes/vote/{id}", quote1.id())).andExpect(status().isOk());
+        this.mockMvc.perform(post("/api/rest/quotes/vote/{id}", quote2.id())).andExpect(status().isOk());
+        this.mockMvc.perform(post("/api/rest/quotes/vote/{id}", quote2.id())).andExpect(status().isOk());
+        this.mockMvc.perform(post("/api/rest/quotes/vote/{id}", quote3.id())).andExpect(status().isOk());
+
+        // WHEN the top authors and the quotes of an author are requested
+        // THEN expect the authors ordered by total votes and the quotes of the author ordered by votes
+        this.mockMvc.perform(get("/api/rest/quotes/authors").param("first", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].author").value("Author 1"))
+            .andExpect(jsonPath("$[0].votes").value(3))
+            .andExpect(jsonPath("$[1].author").value("Author 2"))
+            .andExpect(jsonPath("$[1].votes").value(1));
+
+        this.mockMvc.perform(get("/api/rest/quotes/authors/{author}", "Author 1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].quote.id").value(quote2.id()))
+            .andExpect(jsonPath("$[0].votes").value(2))
+            .andExpect(jsonPath("$[1].quote.id").value(quote1.id()));
+    }
+
+    @DisplayName("""
+        GIVEN an import containing the same quote twice with different vote counts
+        WHEN the quotes are imported
+        THEN expect the author total to equal the highest vote count of the quote
+        """)
+    @Test
+    void importWithDuplicateQuoteCountsAuthorVotesOnce() throws Exception {
+        // GIVEN an import containing the same quote twice with different vote counts
+        var ndjson = """
+            {"quote":{"id":1,"quote":"Test quote 1","author":"Author 1"},"votes":1}
+            {"quote":{"id":1,"quote":"Test quote 1","author":"Author 1"},"votes":3}
+            """;
+
+        // WHEN the quotes are imported
+        this.mockMvc.perform(post("/api/rest/quotes/import").contentType("application/x-ndjson").content(ndjson))
+            .andExpect(status().isOk());
+
+        // THEN expect the author total to equal the highest vote count of the quote
+        this.mockMvc.perform(get("/api/rest/quotes/authors"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].author").value("Author 1"))
+            .andExpect(jsonPath("$[0].votes").value(3));
+        this.mockMvc.perform(get("/api/rest/quotes/authors/{author}", "Author 1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].votes").value(3));
+    }
+
+    @DisplayName("""
+        GIVEN quotes are present in the local cache
+        WHEN the top authors or the quotes of an author are requested with a negative page size
+        THEN expect an empty result
+        """)
+    @Test
+    void negativePageSizeReturnsEmptyResult() throws Exception {
+        // GIVEN quotes are present in the local cache
+        repository.save(new Quote(1L, "Test quote 1", "Author 1"));
+
+        // WHEN the top authors or the quotes of an author are requested with a negative page size
+        // THEN expect an empty result
+        this.mockMvc.perform(get("/api/rest/quotes/authors").param("first", "-1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(0));
+        this.mockMvc.perform(get("/api/rest/quotes/authors/{author}", "Author 1").param("first", "-1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @DisplayName("""
+        GIVEN a quote is present in the local cache
+        WHEN a client votes more often than its rate limit allows
+        THEN expect the excess votes to be rejected with a 429 response status
+        AND expect votes of other clients to be accepted
+        """)
+    @Test
+    void votesAboveClientRateLimitAreRejected() throws Exception {
+        // GIVEN a quote is present in the local cache
+        var quote = repository.save(new Quote(1L, "Test quote 1", "Author 1"));
+
+        // WHEN a client votes more often than its rate limit allows
+        var statuses = new ArrayList<Integer>();
+        for (int i = 0; i < 100; i++) {
+            statuses.add(this.mockMvc.perform(post("/api/rest/quotes/vote/{id}", quote.id()).header("X-API-Key", "client-1"))
+                .andReturn().getResponse().getStatus());
+        }
+
+        // THEN expect the excess votes to be rejected with a 429 response status
+        assertThat(statuses.subList(0, 50)).containsOnly(200);
+        assertThat(statuses).contains(429);
+
+        // AND expect votes of other clients to be accepted
+        this.mockMvc.perform(post("/api/rest/quotes/vote/{id}", quote.id()).header("X-API-Key", "client-2"))
+            .andExpect(status().isOk());
+    }
+
+    @DisplayName("""
+        GIVEN quotes are present in the local cache
+        WHEN the ranking is requested as CBOR and a quote is requested as Protobuf
+        THEN expect the responses to be encoded in the requested formats
+        """)
+    @Test
+    void responsesAreEncodedInAcceptedFormat() throws Exception {
+        // GIVEN quotes are present in the local cache
+        var quote = repository.save(new Quote(1L, "Test quote 1", "Author 1"));
+        this.mockMvc.perform(post("/api/rest/quotes/vote/{id}", quote.id())).andExpect(status().isOk());
+
+        // WHEN the ranking is requested as CBOR and a quote is requested as Protobuf
+        // THEN expect the responses to be encoded in the requested formats
+        var cbor = this.mockMvc.perform(get("/api/rest/quotes/ranking").accept("application/cbor"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/cbor"))
+            .andReturn().getResponse().getContentAsByteArray();
+        var ranking = new CBORMapper().readTree(cbor);
+        assertThat(ranking.get(0).get("quote").get("id").asLong()).isEqualTo(quote.id());
+        assertThat(ranking.get(0).get("votes").asInt()).isEqualTo(1);
+
+        var quoteMessage = HexFormat.of().parseHex("0801120c" + "546573742071756f74652031" + "1a08" + "417574686f722031");
+        var quoteList = new ByteArrayOutputStream();
+        quoteList.write(new byte[] {0x0a, (byte) quoteMessage.length});
+        quoteList.write(quoteMessage);
+        this.mockMvc.perform(get("/api/rest/quotes").param("ids", "1").accept("application/x-protobuf"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-protobuf"))
+            .andExpect(content().bytes(quoteList.toByteArray()));
+    }
+
+    @DisplayName("""
+        GIVEN quotes with votes are present in the local cache
+        WHEN the quotes are exported
+        AND imported again into a cache holding one of them with more votes
+        THEN expect all quotes to be restored with the highest vote counts
+        """)
+    @Test
+    void exportedQuotesCanBeImported() throws Exception {
+        // GIVEN quotes with votes are present in the local cache
+        var quote1 = repository.save(new Quote(1L, "Test quote 1", "Author 1"));
+        var quote2 = repository.save(new Quote(2L, "Test quote 2", "Author 2"));
+        this.mockMvc.perform(post("/api/rest/quotes/vote/{id}", quote1.id())).andExpect(status().isOk());
+        this.mockMvc.perform(post("/api/rest/quotes/vote/{id}", quote2.id())).andExpect(status().isOk());
+
+        // WHEN the quotes are exported
+        var export = this.mockMvc.perform(get("/api/rest/quotes/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        export.getAsyncResult();
+        var ndjson = export.getResponse().getContentAsString();
+        assertThat(ndjson).isEqualTo("""
+            {"quote":{"id":1,"quote":"Test quote 1","author":"Author 1"},"votes":1}
+            {"quote":{"id":2,"quote":"Test quote 2","author":"Author 2"},"votes":1}
+            """);
+
+        // AND imported again into a cache holding one of them with more votes
+        repository.flush();
+        repository.save(quote2);
+        for (int i = 0; i < 3; i++) {
+            this.mockMvc.perform(post("/api/rest/quotes/vote/{id}", quote2.id())).andExpect(status().isOk());
+        }
+        this.mockMvc.perform(post("/api/rest/quotes/import").contentType("application/x-ndjson").content(ndjson))
+            .andExpect(status().isOk())
+            .andExpect(content().string("2"));
+
+        // THEN expect all quotes to be restored with the highest vote counts
+        this.mockMvc.perform(get("/api/rest/quotes/ranking"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].quote.id").value(quote2.id()))
+            .andExpect(jsonPath("$[0].votes").value(3))
+            .andExpect(jsonPath("$[1].quote.id").value(quote1.id()))
+            .andExpect(jsonPath("$[1].quote.author").value("Author 1"))
+            .andExpect(jsonPath("$[1].votes").value(1));
+    }
+
+    @DisplayName("""
+        GIVEN an import with a malformed record on the third line
+        WHEN the quotes are imported
+        THEN expect a bad request with the line and the number of records imported before it
+        AND expect the records before it to be imported
+        AND expect a line that is not a record at all to be reported as well
+        """)
+    @Test
+    void malformedImportRecordIsRejected() throws Exception {
+        // GIVEN an import with a malformed record on the third line
+        var ndjson = """
+            {"quote":{"id":1,"quote":"Test quote 1","author":"Author 1"},"votes":1}
+            {"quote":{"id":2,"quote":"Test quote 2","author":"Author 2"},"votes":2}
+            {"quote":{"id":3,"quote":"Test quote 3","author":"Author 3"},"votes":
+            {"quote":{"id":4,"quote":"Test quote 4","author":"Author 4"},"votes":4}
+            """;
+
+        // WHEN the quotes are imported
+        this.mockMvc.perform(post("/api/rest/quotes/import").contentType("application/x-ndjson").content(ndjson))
+            // THEN expect a bad request with the line and the number of records imported before it
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.line").value(3))
+            .andExpect(jsonPath("$.imported").value(2));
+
+        // AND expect the records before it to be imported
+        this.mockMvc.perform(get("/api/rest/quotes/ranking"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].quote.id").value(2))
+            .andExpect(jsonPath("$[1].quote.id").value(1));
+
+        // AND expect a line that is not a record at all to be reported as well
+        this.mockMvc.perform(post("/api/rest/quotes/import").contentType("application/x-ndjson").content("""
+                {"quote":{"id":1,"quote":"Test quote 1","author":"Author 1"},"votes":1}
+                not a record
+                """))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.line").value(2))
+            .andExpect(jsonPath("$.imported").value(1));
+    }
+
+    @DisplayName("""
+        GIVEN an import with a negative vote count on the second line
+        WHEN the quotes are imported
+        THEN expect a bad request with the line and the number of records imported before it
+        """)
+    @Test
+    void negativeVoteCountInImportIsRejected() throws Exception {
+        // GIVEN an import with a negative vote count on the second line
+        var ndjson = """
+            {"quote":{"id":1,"quote":"Test quote 1","author":"Author 1"},"votes":1}
+            {"quote":{"id":2,"quote":"Test quote 2","author":"Author 2"},"votes":-5}
+            """;
+
+        // WHEN the quotes are imported
+        this.mockMvc.perform(post("/api/rest/quotes/import").contentType("application/x-ndjson").content(ndjson))
+            // THEN expect a bad request with the line and the number of records imported before it
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.line").value(2))
+            .andExpect(jsonPath("$.imported").value(1));
+    }
+
+    @DisplayName("""
+        GIVEN quotes are present in the local cache
+        AND a client has the ranking at some version
+        WHEN votes are given and the ranking changes since that version are requested
+        THEN expect only the latest vote counts of the changed quotes and the new version
+        AND expect a resync signal once the changes are no longer known
+        """)
+    @Test
+    void rankingChangesContainOnlyChangedQuotes() throws Exception {
+        // GIVEN quotes are present in the local cache
+        var quote1 = repository.save(new Quote(1L, "Test quote 1", "Author 1"));
+        var quote2 = repository.save(new Quote(2L, "Test quote 2", "Author 2"));
+        repository.save(new Quote(3L, "Test quote 3", "Author 3"));
+
+        // AND a client has the ranking at some version
+        long version = repository.getRankingChangesSince(0).version();
+
+        // WHEN votes are given and the ranking changes since that version are requested
+        this.mockMvc.perform(post("/api/rest/quotes/vote/{id}", quote1.id())).andExpect(status().isOk());
+        this.mockMvc.perform(post("/api/rest/quotes/vote/{id}", quote2.id())).andExpect(status().isOk());
+        this.mockMvc.perform(post("/api/rest/quotes/vote/{id}", quote1.id())).andExpect(status().isOk());
+
+        // THEN expect only the latest vote counts of the changed quotes and the new version
+        this.mockMvc.perform(get("/api/rest/quotes/ranking/changes").param("since", String.valueOf(version)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.version").value(version + 3))
+            .andExpect(jsonPath("$.resyncRequired").value(false))
+            .andExpect(jsonPath("$.changes.length()").value(2))
+            .andExpect(jsonPath("$.changes[0].quoteId").value(quote2.id()))
+            .andExpect(jsonPath("$.changes[0].votes").value(1))
+            .andExpect(jsonPath("$.changes[1].quoteId").value(quote1.id()))
+            .andExpect(jsonPath("$.changes[1].votes").value(2));
+        this.mockMvc.perform(get("/api/rest/quotes/ranking/changes").param("since", String.valueOf(version + 3)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.resyncRequired").value(false))
+            .andExpect(jsonPath("$.changes.length()").value(0));
+
+        // AND expect a resync signal once the changes are no longer known
+        repository.flush();
+        this.mockMvc.perform(get("/api/rest/quotes/ranking/changes").param("since", String.valueOf(version + 3)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.version").value(version + 4))
+            .andExpect(jsonPath("$.resyncRequired").value(true))
+            .andExpect(jsonPath("$.changes.length()").value(0));
+    }
 }
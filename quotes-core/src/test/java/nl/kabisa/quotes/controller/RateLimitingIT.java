@@ -0,0 +1,114 @@
+package nl.kabisa.quotes.controller;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import nl.kabisa.quotes.model.Quote;
+import nl.kabisa.quotes.repository.QuotesRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.wiremock.spring.ConfigureWireMock;
+import org.wiremock.spring.EnableWireMock;
+import org.wiremock.spring.InjectWireMock;
+
+@SpringBootTest(properties = {
+    "quotes.dummy-json.url=http://localhost:${wiremock.server.port}/quotes",
+    "quotes.dummy-json.concurrency.initial-limit=2",
+    "quotes.dummy-json.concurrency.maximum-limit=2"
+})
+@EnableWireMock({
+    @ConfigureWireMock(name = "dummy-json")
+})
+@AutoConfigureMockMvc
+class RateLimitingIT {
+
+    @InjectWireMock("dummy-json")
+    WireMockServer wireMock;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private QuotesRepository repository;
+
+    @BeforeEach
+    void setup() {
+        wireMock.resetAll();
+        repository.flush();
+    }
+
+    @DisplayName("""
+        GIVEN a quote is present in the local cache
+        WHEN a client votes more often than its rate limit allows, sending a different unknown API key with every vote
+        THEN expect the excess votes to be rejected with a 429 response status
+        """)
+    @Test
+    void rotatingUnknownApiKeysDoesNotBypassRateLimit() throws Exception {
+        // GIVEN a quote is present in the local cache
+        var quote = repository.save(new Quote(1L, "Test quote 1", "Author 1"));
+
+        // WHEN a client votes more often than its rate limit allows, sending a different unknown API key with every vote
+        var statuses = new ArrayList<Integer>();
+        for (int i = 0; i < 100; i++) {
+            statuses.add(this.mockMvc.perform(post("/api/rest/quotes/vote/{id}", quote.id()).header("X-API-Key", "made-up-" + i))
+                .andReturn().getResponse().getStatus());
+        }
+
+        // THEN expect the excess votes to be rejected with a 429 response status
+        assertThat(statuses.subList(0, 50)).containsOnly(200);
+        assertThat(statuses).contains(429);
+    }
+
+    @DisplayName("""
+        GIVEN a slow response from Dummy JSON
+        AND no quotes are present in the local cache
+        WHEN more random quotes are requested concurrently than the upstream concurrency limit allows
+        THEN expect the excess requests to be shed with a 503 response status
+        AND expect Dummy JSON to receive no more requests than the limit
+        """)
+    @Test
+    void randomQuotesAboveUpstreamConcurrencyLimitAreShed() throws Exception {
+        // GIVEN a slow response from Dummy JSON
+        wireMock.stubFor(WireMock.get("/quotes/random").willReturn(okJson("""
+            {
+              "id": 3,
+              "quote": "If you want to lift yourself up, lift up someone else.",
+              "author": "Booker T. Washington"
+            }
+            """).withFixedDelay(1000)));
+
+        // AND no quotes are present in the local cache
+        // WHEN more random quotes are requested concurrently than the upstream concurrency limit allows
+        var requests = new ArrayList<Callable<Integer>>();
+        for (int i = 0; i < 10; i++) {
+            requests.add(() -> this.mockMvc.perform(get("/api/rest/quotes/random")).andReturn().getResponse().getStatus());
+        }
+        var statuses = new ArrayList<Integer>();
+        try (var executor = Executors.newFixedThreadPool(requests.size())) {
+            for (var status : executor.invokeAll(requests)) {
+                statuses.add(status.get());
+            }
+        }
+
+        // THEN expect the excess requests to be shed with a 503 response status
+        assertThat(statuses).contains(503);
+        assertThat(statuses).containsOnly(200, 503);
+
+        // AND expect Dummy JSON to receive no more requests than the limit
+        assertThat(wireMock.findAll(getRequestedFor(urlEqualTo("/quotes/random")))).hasSizeLessThanOrEqualTo(2);
+    }
+}
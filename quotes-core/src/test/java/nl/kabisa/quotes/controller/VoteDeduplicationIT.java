@@ -0,0 +1,136 @@
+package nl.kabisa.quotes.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import nl.kabisa.quotes.model.Quote;
+import nl.kabisa.quotes.repository.QuotesRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.wiremock.spring.ConfigureWireMock;
+import org.wiremock.spring.EnableWireMock;
+import org.wiremock.spring.InjectWireMock;
+
+@SpringBootTest(properties = {
+    "quotes.dummy-json.url=http://localhost:${wiremock.server.port}/quotes",
+    "quotes.votes.deduplication.enabled=true"
+})
+@EnableWireMock({
+    @ConfigureWireMock(name = "dummy-json")
+})
+@AutoConfigureMockMvc
+class VoteDeduplicationIT {
+
+    @InjectWireMock("dummy-json")
+    WireMockServer wireMock;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private QuotesRepository repository;
+
+    @BeforeEach
+    void setup() {
+        wireMock.resetAll();
+        repository.flush();
+    }
+
+    @DisplayName("""
+        GIVEN vote deduplication is enabled
+        AND quotes are present in the local cache
+        WHEN a client votes for the same quote twice
+        THEN expect the second vote to be rejected with a 409 response status
+        AND expect votes for other quotes and from other clients to be accepted
+        """)
+    @Test
+    void repeatedVoteOfClientIsRejected() throws Exception {
+        // GIVEN vote deduplication is enabled
+        // AND quotes are present in the local cache
+        var quote1 = repository.save(new Quote(1L, "Test quote 1", "Author 1"));
+        var quote2 = repository.save(new Quote(2L, "Test quote 2", "Author 2"));
+
+        // WHEN a client votes for the same quote twice
+        this.mockMvc.perform(post("/api/rest/quotes/vote/{id}", quote1.id()).header("X-API-Key", "client-1"))
+            .andExpect(status().isOk());
+
+        // THEN expect the second vote to be rejected with a 409 response status
+        this.mockMvc.perform(post("/api/rest/quotes/vote/{id}", quote1.id()).header("X-API-Key", "client-1"))
+            .andExpect(status().isConflict());
+
+        // AND expect votes for other quotes and from other clients to be accepted
+        this.mockMvc.perform(post("/api/rest/quotes/vote/{id}", quote2.id()).header("X-API-Key", "client-1"))
+            .andExpect(status().isOk());
+        this.mockMvc.perform(post("/api/rest/quotes/vote/{id}", quote1.id()).header("X-API-Key", "client-2"))
+            .andExpect(status().isOk());
+
+        this.mockMvc.perform(get("/api/rest/quotes/ranking"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].quote.id").value(quote1.id()))
+            .andExpect(jsonPath("$[0].votes").value(2))
+            .andExpect(jsonPath("$[1].quote.id").value(quote2.id()))
+            .andExpect(jsonPath("$[1].votes").value(1));
+    }
+
+    @DisplayName("""
+        GIVEN vote deduplication is enabled
+        AND a quote nobody voted for yet is present in the local cache
+        WHEN a client votes for the quote many times at once
+        THEN expect exactly one vote to be accepted
+        """)
+    @Test
+    void concurrentRepeatedVotesAreAcceptedOnce() throws Exception {
+        // GIVEN vote deduplication is enabled
+        // AND a quote nobody voted for yet is present in the local cache
+        var quote = repository.save(new Quote(10L, "Test quote 10", "Author 10"));
+
+        // WHEN a client votes for the quote many times at once
+        var votes = new ArrayList<Callable<Integer>>();
+        for (int i = 0; i < 20; i++) {
+            votes.add(() -> this.mockMvc.perform(post("/api/rest/quotes/vote/{id}", quote.id()).header("X-API-Key", "client-1"))
+                .andReturn().getResponse().getStatus());
+        }
+        var statuses = new ArrayList<Integer>();
+        try (var executor = Executors.newFixedThreadPool(votes.size())) {
+            for (var status : executor.invokeAll(votes)) {
+                statuses.add(status.get());
+            }
+        }
+
+        // THEN expect exactly one vote to be accepted
+        assertThat(statuses).containsOnlyOnce(200);
+        assertThat(statuses).containsOnly(200, 409);
+    }
+
+    @DisplayName("""
+        GIVEN vote deduplication is enabled
+        AND a quote nobody voted for yet is present in the local cache
+        WHEN a client votes for the quote again with a different unknown API key
+        THEN expect the second vote to be rejected with a 409 response status
+        """)
+    @Test
+    void repeatedVoteWithUnknownApiKeyIsRejected() throws Exception {
+        // GIVEN vote deduplication is enabled
+        // AND a quote nobody voted for yet is present in the local cache
+        var quote = repository.save(new Quote(11L, "Test quote 11", "Author 11"));
+        this.mockMvc.perform(post("/api/rest/quotes/vote/{id}", quote.id()).header("X-API-Key", "made-up-1"))
+            .andExpect(status().isOk());
+
+        // WHEN a client votes for the quote again with a different unknown API key
+        // THEN expect the second vote to be rejected with a 409 response status
+        this.mockMvc.perform(post("/api/rest/quotes/vote/{id}", quote.id()).header("X-API-Key", "made-up-2"))
+            .andExpect(status().isConflict());
+    }
+}
@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+#
+# Compares startup time and resident memory of the quotes service as a plain JVM jar, as an AOT processed jar with an
+# AppCDS archive, and as a GraalVM native image.
+#
+# Build the variants first (from the repository root):
+#   ./mvnw package -pl quotes-core -DskipTests spring-boot:repackage   # JVM
+#   ./mvnw -Pcds package -pl quotes-core -DskipTests                    # CDS
+#   ./mvnw -Pnative native:compile -pl quotes-core -DskipTests          # native
+#
+# Usage: scripts/startup-benchmark.sh [runs]
+# Variants that have not been built are skipped.
+
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT="${PORT:-18080}"
+TARGET="$(cd "$(dirname "$0")/../quotes-core/target" && pwd)"
+JAR="$(ls "$TARGET"/quotes-core-*.jar 2>/dev/null | grep -v -- '-plain\.jar$' | head -n 1 || true)"
+CDS_JAR="$(ls "$TARGET"/cds/quotes-core-*.jar 2>/dev/null | head -n 1 || true)"
+NATIVE="$TARGET/quotes-core"
+
+now_ms() {
+    date +%s%3N
+}
+
+# Starts the given command, waits until the health endpoint reports UP and prints "<startup ms> <rss kB>".
+measure() {
+    local start pid rss
+    start=$(now_ms)
+    "$@" --server.port="$PORT" > /dev/null 2>&1 &
+    pid=$!
+    until curl -sf "http://localhost:$PORT/actuator/health" | grep -q '"UP"'; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "process exited before becoming healthy: $*" >&2
+            return 1
+        fi
+        sleep 0.05
+    done
+    local elapsed=$(($(now_ms) - start))
+    rss=$(awk '/VmRSS/ { print $2 }' "/proc/$pid/status")
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo "$elapsed $rss"
+}
+
+benchmark() {
+    local name="$1"
+    shift
+    local total_ms=0 total_rss=0 result
+    for ((run = 1; run <= RUNS; run++)); do
+        result=$(measure "$@")
+        total_ms=$((total_ms + ${result% *}))
+        total_rss=$((total_rss + ${result#* }))
+    done
+    printf '%-8s %10d ms %10d MB\n' "$name" $((total_ms / RUNS)) $((total_rss / RUNS / 1024))
+}
+
+printf '%-8s %13s %13s\n' "variant" "startup" "rss"
+if [[ -n "$JAR" ]]; then
+    benchmark jvm java -jar "$JAR"
+fi
+if [[ -n "$CDS_JAR" && -f "$TARGET/cds/application.jsa" ]]; then
+    benchmark cds java -XX:SharedArchiveFile="$TARGET/cds/application.jsa" -Dspring.aot.enabled=true -jar "$CDS_JAR"
+fi
+if [[ -x "$NATIVE" ]]; then
+    benchmark native "$NATIVE"
+fi